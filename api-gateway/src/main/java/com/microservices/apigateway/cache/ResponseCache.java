@@ -0,0 +1,198 @@
+package com.microservices.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded in-memory store of proxied GET responses for the routes in {@link ResponseCacheProperties}, keyed by
+ * path, query and caller. A resource has one entry per caller, so invalidating a path does not look them up:
+ * it records when the path was invalidated, and entries fetched before that are dropped when next read.
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private static final String PREFIX = "gateway.response-cache";
+    // Key, headers and object overhead, so that small bodies still count against the bound
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final boolean enabled;
+    private final long maximumEntryBytes;
+    private final List<CachedRoute> routes;
+    private final Cache<Key, CachedResponse> entries;
+    // Path -> System.nanoTime() of its last invalidation
+    private final Cache<String, Long> invalidations;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResponseCache(Environment environment, MeterRegistry meterRegistry) {
+        ResponseCacheProperties properties = Binder.get(environment)
+            .bind(PREFIX, ResponseCacheProperties.class)
+            .orElseGet(ResponseCacheProperties::new);
+        this.enabled = properties.isEnabled();
+        this.maximumEntryBytes = properties.getMaximumEntrySize().toBytes();
+
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<CachedRoute> compiled = new ArrayList<>();
+        Duration longestTimeToLive = Duration.ZERO;
+        for (ResponseCacheProperties.Route route : properties.getRoutes()) {
+            if (route.getPath() == null || route.getPath().isBlank() || !route.getTimeToLive().isPositive()) {
+                throw new IllegalArgumentException("Invalid response cache route: " + route);
+            }
+            compiled.add(new CachedRoute(parser.parse(route.getPath()), route.getTimeToLive()));
+            if (route.getTimeToLive().compareTo(longestTimeToLive) > 0) {
+                longestTimeToLive = route.getTimeToLive();
+            }
+        }
+        this.routes = List.copyOf(compiled);
+
+        this.entries = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaximumSize().toBytes())
+            .<Key, CachedResponse>weigher((key, response) -> key.weight() + response.body().length + ENTRY_OVERHEAD_BYTES)
+            .expireAfter(new Expiry<Key, CachedResponse>() {
+                @Override
+                public long expireAfterCreate(Key key, CachedResponse response, long currentTime) {
+                    return response.timeToLive().toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(Key key, CachedResponse response, long currentTime, long currentDuration) {
+                    return response.timeToLive().toNanos();
+                }
+
+                @Override
+                public long expireAfterRead(Key key, CachedResponse response, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+        // An invalidation only matters while entries fetched before it can still be alive
+        this.invalidations = Caffeine.newBuilder()
+            .expireAfterWrite(longestTimeToLive.isPositive() ? longestTimeToLive : Duration.ofSeconds(1))
+            .build();
+
+        this.hits = Counter.builder("gateway.response-cache.requests")
+            .description("Cacheable requests served from the gateway response cache")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("gateway.response-cache.requests")
+            .description("Cacheable requests forwarded because nothing fresh was cached")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("gateway.response-cache.hit-ratio", this, ResponseCache::hitRatio)
+            .description("Share of cacheable requests served from the cache")
+            .register(meterRegistry);
+        Gauge.builder("gateway.response-cache.entries", entries, Cache::estimatedSize)
+            .description("Responses currently cached")
+            .register(meterRegistry);
+        Gauge.builder("gateway.response-cache.size", entries,
+                cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+            .description("Approximate memory held by cached responses")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+
+        log.info("Response cache {}: {} routes, maximum size {}", enabled ? "enabled" : "disabled",
+            routes.size(), properties.getMaximumSize());
+    }
+
+    /**
+     * Returns how long responses for the path may be cached, or null if the path is not cached.
+     */
+    public Duration timeToLive(PathContainer path) {
+        if (!enabled) {
+            return null;
+        }
+        for (CachedRoute route : routes) {
+            if (route.pattern().matches(path)) {
+                return route.timeToLive();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the fresh entry for the key, or null; every call counts as a hit or a miss.
+     */
+    public CachedResponse get(Key key) {
+        CachedResponse response = entries.getIfPresent(key);
+        if (response != null && invalidatedSince(key.path(), response.fetchStartedNanos())) {
+            entries.asMap().remove(key, response);
+            response = null;
+        }
+        (response != null ? hits : misses).increment();
+        return response;
+    }
+
+    public void put(Key key, CachedResponse response) {
+        // Skip responses that were already stale when they arrived
+        if (response.body().length > maximumEntryBytes || invalidatedSince(key.path(), response.fetchStartedNanos())) {
+            return;
+        }
+        entries.put(key, response);
+    }
+
+    /**
+     * Drops the cached responses for the path, for every caller and query.
+     */
+    public void invalidate(String path) {
+        invalidations.asMap().merge(path, System.nanoTime(), Math::max);
+    }
+
+    /**
+     * Drops the cached responses for the path a write went to and for its parents, e.g. a write to
+     * {@code /api/orders/42/status} also invalidates {@code /api/orders/42} and {@code /api/orders}.
+     */
+    public void invalidateWithParents(String path) {
+        for (String current = path; current.lastIndexOf('/') > 0; current = current.substring(0, current.lastIndexOf('/'))) {
+            invalidate(current);
+        }
+    }
+
+    private boolean invalidatedSince(String path, long nanos) {
+        Long invalidatedAt = invalidations.getIfPresent(path);
+        return invalidatedAt != null && invalidatedAt - nanos >= 0;
+    }
+
+    private double hitRatio() {
+        double hitCount = hits.count();
+        double total = hitCount + misses.count();
+        return total == 0 ? 0 : hitCount / total;
+    }
+
+    private record CachedRoute(PathPattern pattern, Duration timeToLive) {
+    }
+
+    /**
+     * Cache key; {@code query} is the raw query string or null, {@code caller} identifies the user.
+     */
+    public record Key(String path, String query, String caller) {
+
+        int weight() {
+            return 2 * (path.length() + (query != null ? query.length() : 0) + caller.length());
+        }
+    }
+
+    /**
+     * A cached 200 response; {@code fetchStartedNanos} is when the request that produced it was forwarded.
+     */
+    public record CachedResponse(MediaType contentType, String etag, byte[] body, long fetchStartedNanos,
+                                 Duration timeToLive) {
+    }
+}
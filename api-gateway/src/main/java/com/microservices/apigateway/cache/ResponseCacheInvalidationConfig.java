@@ -0,0 +1,82 @@
+package com.microservices.apigateway.cache;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Subscribes every gateway instance, through its own queue, to the order and payment status events that
+ * make cached responses stale.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheInvalidationConfig {
+
+    public static final String ORDER_EXCHANGE = "order.exchange";
+    public static final String PAYMENT_EXCHANGE = "payment.exchange";
+
+    public static final String ORDER_STATUS_UPDATED_ROUTING_KEY = "order.status.updated";
+    public static final String PAYMENT_PROCESSED_ROUTING_KEY = "payment.processed";
+    public static final String PAYMENT_BATCH_PROCESSED_ROUTING_KEY = "payment.batch.processed";
+    public static final String PAYMENT_STATUS_UPDATED_ROUTING_KEY = "payment.status.updated";
+
+    @Bean
+    public MessageConverter messageConverter() {
+        // The listener has no parameter type to convert to, so the type header decides; only trust event classes
+        return new Jackson2JsonMessageConverter("com.microservices.common.event");
+    }
+
+    @Bean
+    public TopicExchange orderExchange() {
+        return new TopicExchange(ORDER_EXCHANGE);
+    }
+
+    @Bean
+    public TopicExchange paymentExchange() {
+        return new TopicExchange(PAYMENT_EXCHANGE);
+    }
+
+    @Bean
+    public Queue responseCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding orderStatusInvalidationBinding() {
+        return BindingBuilder
+            .bind(responseCacheInvalidationQueue())
+            .to(orderExchange())
+            .with(ORDER_STATUS_UPDATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding paymentProcessedInvalidationBinding() {
+        return BindingBuilder
+            .bind(responseCacheInvalidationQueue())
+            .to(paymentExchange())
+            .with(PAYMENT_PROCESSED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding paymentBatchProcessedInvalidationBinding() {
+        return BindingBuilder
+            .bind(responseCacheInvalidationQueue())
+            .to(paymentExchange())
+            .with(PAYMENT_BATCH_PROCESSED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding paymentStatusUpdatedInvalidationBinding() {
+        return BindingBuilder
+            .bind(responseCacheInvalidationQueue())
+            .to(paymentExchange())
+            .with(PAYMENT_STATUS_UPDATED_ROUTING_KEY);
+    }
+}
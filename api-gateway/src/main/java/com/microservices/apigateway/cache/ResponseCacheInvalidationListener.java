@@ -0,0 +1,56 @@
+package com.microservices.apigateway.cache;
+
+import com.microservices.common.event.OrderStatusUpdatedEvent;
+import com.microservices.common.event.PaymentBatchProcessedEvent;
+import com.microservices.common.event.PaymentProcessedEvent;
+import com.microservices.common.event.PaymentStatusUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates cached order and payment responses when their status changes, whichever instance or
+ * service made the change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "gateway.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+@RabbitListener(queues = "#{responseCacheInvalidationQueue.name}")
+public class ResponseCacheInvalidationListener {
+
+    private static final String ORDERS_PATH = "/api/orders/";
+    private static final String PAYMENTS_PATH = "/api/payments/";
+
+    private final ResponseCache responseCache;
+
+    @RabbitHandler
+    public void handleOrderStatusUpdated(OrderStatusUpdatedEvent event) {
+        log.debug("Invalidating cached order {} after status change to {}", event.getOrderId(), event.getNewStatus());
+        responseCache.invalidate(ORDERS_PATH + event.getOrderId());
+    }
+
+    @RabbitHandler
+    public void handlePaymentProcessed(PaymentProcessedEvent event) {
+        invalidatePayment(event);
+    }
+
+    @RabbitHandler
+    public void handlePaymentBatchProcessed(PaymentBatchProcessedEvent event) {
+        event.getPayments().forEach(this::invalidatePayment);
+    }
+
+    @RabbitHandler
+    public void handlePaymentStatusUpdated(PaymentStatusUpdatedEvent event) {
+        log.debug("Invalidating cached payment {} after status change to {}", event.getPaymentId(), event.getNewStatus());
+        responseCache.invalidate(PAYMENTS_PATH + event.getPaymentId());
+    }
+
+    private void invalidatePayment(PaymentProcessedEvent event) {
+        log.debug("Invalidating cached payment {} after status change to {}", event.getPaymentId(), event.getStatus());
+        responseCache.invalidate(PAYMENTS_PATH + event.getPaymentId());
+    }
+}
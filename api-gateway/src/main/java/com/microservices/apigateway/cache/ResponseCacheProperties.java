@@ -0,0 +1,31 @@
+package com.microservices.apigateway.cache;
+
+import lombok.Data;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response cache settings bound from {@code gateway.response-cache.*}. Only GET requests matching one of
+ * {@code routes} are cached, each for its route's time to live.
+ */
+@Data
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    // Total size of cached bodies; least recently used entries are evicted beyond it
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+    // Larger responses are passed through without being cached
+    private DataSize maximumEntrySize = DataSize.ofKilobytes(256);
+    // First matching route wins
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        // Gateway path pattern, e.g. /api/orders/{id:[0-9]+}
+        private String path;
+        private Duration timeToLive = Duration.ofSeconds(30);
+    }
+}
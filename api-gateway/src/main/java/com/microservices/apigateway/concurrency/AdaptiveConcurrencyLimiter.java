@@ -0,0 +1,116 @@
+package com.microservices.apigateway.concurrency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Holds one {@link GradientLimit} per route and downstream instance. Limits of instances that stop
+ * receiving traffic are dropped after {@code idle-time-to-live}, together with their meters.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Partition> partitions;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final int longWindow;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${gateway.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${gateway.concurrency.min-limit:4}") int minLimit,
+                                      @Value("${gateway.concurrency.max-limit:500}") int maxLimit,
+                                      @Value("${gateway.concurrency.smoothing:0.2}") double smoothing,
+                                      @Value("${gateway.concurrency.rtt-tolerance:1.5}") double rttTolerance,
+                                      @Value("${gateway.concurrency.long-window:600}") int longWindow,
+                                      @Value("${gateway.concurrency.idle-time-to-live:10m}") Duration idleTimeToLive) {
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longWindow = longWindow;
+        this.partitions = Caffeine.newBuilder()
+            .expireAfterAccess(idleTimeToLive)
+            .<String, Partition>removalListener((key, partition, cause) -> {
+                if (partition != null) {
+                    partition.meters().forEach(meterRegistry::remove);
+                }
+            })
+            .build();
+    }
+
+    public GradientLimit limitFor(String routeId, String instance) {
+        return partitions.get(routeId + "@" + instance, key -> newPartition(routeId, instance)).limit();
+    }
+
+    /**
+     * Live state of every tracked route and instance, keyed by {@code route@host:port}.
+     */
+    public Map<String, LimitSnapshot> snapshots() {
+        Map<String, LimitSnapshot> snapshots = new TreeMap<>();
+        partitions.asMap().forEach((key, partition) -> {
+            GradientLimit limit = partition.limit();
+            snapshots.put(key, new LimitSnapshot(
+                partition.routeId(),
+                partition.instance(),
+                limit.getLimit(),
+                limit.getInFlight(),
+                limit.getEstimatedQueue(),
+                limit.getNoLoadRttMillis(),
+                limit.getRecentRttMillis(),
+                limit.getRejected()));
+        });
+        return snapshots;
+    }
+
+    private Partition newPartition(String routeId, String instance) {
+        GradientLimit limit = new GradientLimit(initialLimit, minLimit, maxLimit, smoothing, rttTolerance, longWindow);
+        Tags tags = Tags.of("route", routeId, "instance", instance);
+        List<Meter> meters = List.of(
+            Gauge.builder("gateway.concurrency.limit", limit, GradientLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder("gateway.concurrency.in-flight", limit, GradientLimit::getInFlight)
+                .description("Requests in flight to the instance")
+                .tags(tags)
+                .register(meterRegistry),
+            Gauge.builder("gateway.concurrency.queue", limit, GradientLimit::getEstimatedQueue)
+                .description("Requests estimated to be queueing at the instance")
+                .tags(tags)
+                .register(meterRegistry),
+            FunctionCounter.builder("gateway.concurrency.rejected", limit, GradientLimit::getRejected)
+                .description("Requests rejected because the limit was reached")
+                .tags(tags)
+                .register(meterRegistry));
+        log.debug("Tracking concurrency limit for route {} on {}", routeId, instance);
+        return new Partition(routeId, instance, limit, meters);
+    }
+
+    private record Partition(String routeId, String instance, GradientLimit limit, List<Meter> meters) {
+    }
+
+    public record LimitSnapshot(String route, String instance, int limit, int inFlight, double estimatedQueue,
+                                double noLoadRttMillis, double recentRttMillis, long rejected) {
+    }
+}
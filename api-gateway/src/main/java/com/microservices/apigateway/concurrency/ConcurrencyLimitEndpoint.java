@@ -0,0 +1,25 @@
+package com.microservices.apigateway.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/concurrencylimits}: the live adaptive limit, in-flight count and estimated queue per
+ * route and downstream instance.
+ */
+@Component
+@Endpoint(id = "concurrencylimits")
+@RequiredArgsConstructor
+public class ConcurrencyLimitEndpoint {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @ReadOperation
+    public Map<String, AdaptiveConcurrencyLimiter.LimitSnapshot> limits() {
+        return limiter.snapshots();
+    }
+}
@@ -0,0 +1,134 @@
+package com.microservices.apigateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit for one downstream, adjusted from measured round trip times (gradient algorithm).
+ * A long-term average of the RTT stands in for the no-load latency; while recent samples stay close to
+ * it the limit grows by about {@code sqrt(limit)}, and as they rise above it (requests are queueing
+ * downstream) the limit shrinks in proportion. Failed requests back the limit off multiplicatively.
+ * Limit changes are smoothed and clamped to {@code [minLimit, maxLimit]}.
+ */
+public final class GradientLimit {
+
+    private static final int WARMUP_SAMPLES = 10;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final int longWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+
+    // Guarded by this
+    private double longRtt;
+    private int samples;
+    private volatile double lastRtt;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double rttTolerance, int longWindow) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longWindow = longWindow;
+    }
+
+    /**
+     * Takes a slot if fewer than {@code limit} requests are in flight; every successful call must be
+     * followed by exactly one {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Records a completed request that took {@code rttNanos}, with {@code inFlightAtStart} requests in
+     * flight when it was admitted.
+     */
+    public synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        double rtt = rttNanos;
+        lastRtt = rtt;
+        if (samples < WARMUP_SAMPLES) {
+            samples++;
+            longRtt += (rtt - longRtt) / samples;
+            return;
+        }
+        longRtt += (rtt - longRtt) / longWindow;
+        // After a sustained latency drop the long-term average would lag for a whole window; let it catch up
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+        // Too little traffic to tell whether a higher limit would help
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / rtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        setLimit(limit * (1 - smoothing) + target * smoothing);
+    }
+
+    /**
+     * Records a request that failed or timed out, which is taken as a sign of overload.
+     */
+    public synchronized void onDropped() {
+        setLimit(limit * BACKOFF_RATIO);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public synchronized double getNoLoadRttMillis() {
+        return longRtt / 1_000_000;
+    }
+
+    public double getRecentRttMillis() {
+        return lastRtt / 1_000_000;
+    }
+
+    /**
+     * Requests estimated to be waiting downstream rather than being served, by Little's law: the share of
+     * the recent RTT above the no-load RTT, times the requests in flight.
+     */
+    public double getEstimatedQueue() {
+        double recent = lastRtt;
+        double noLoad;
+        synchronized (this) {
+            noLoad = longRtt;
+        }
+        if (recent <= 0 || noLoad >= recent) {
+            return 0;
+        }
+        return inFlight.get() * (1 - noLoad / recent);
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -1,15 +1,23 @@
 package com.microservices.apigateway.config;
 
+import com.microservices.apigateway.filter.ConcurrencyLimitFilter;
 import com.microservices.apigateway.filter.RateLimitFilter;
+import com.microservices.apigateway.filter.ResponseCacheFilter;
+import com.microservices.common.loadbalancer.InstanceLoadTracker;
+import com.microservices.common.loadbalancer.LatencyAwareLoadBalancerConfiguration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+
 @Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 public class GatewayConfig {
 
     @Value("${order.service.uri:http://localhost:8081}")
@@ -21,6 +29,12 @@ public class GatewayConfig {
     @Value("${spring.cloud.consul.discovery.enabled:false}")
     private boolean consulDiscoveryEnabled;
 
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(@Value("${loadbalancer.latency-aware.decay:10s}") Duration decay,
+                                                   @Value("${loadbalancer.latency-aware.failure-penalty:1s}") Duration failurePenalty) {
+        return new InstanceLoadTracker(decay, failurePenalty);
+    }
+
     @Bean
     @LoadBalanced
     public WebClient.Builder webClientBuilder() {
@@ -28,7 +42,9 @@ public class GatewayConfig {
     }
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, RateLimitFilter rateLimitFilter) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, RateLimitFilter rateLimitFilter,
+                                           ConcurrencyLimitFilter concurrencyLimitFilter,
+                                           ResponseCacheFilter responseCacheFilter) {
         // Use direct URLs if Consul discovery is disabled, otherwise use load-balanced service names
         String orderUri = consulDiscoveryEnabled ? "lb://order-service" : orderServiceUri;
         String paymentUri = consulDiscoveryEnabled ? "lb://payment-service" : paymentServiceUri;
@@ -39,6 +55,8 @@ public class GatewayConfig {
                 .filters(f -> f
                     .stripPrefix(1)
                     .filter(rateLimitFilter)
+                    .filter(responseCacheFilter)
+                    .filter(concurrencyLimitFilter)
                 )
                 .uri(orderUri)
             )
@@ -47,6 +65,8 @@ public class GatewayConfig {
                 .filters(f -> f
                     .stripPrefix(1)
                     .filter(rateLimitFilter)
+                    .filter(responseCacheFilter)
+                    .filter(concurrencyLimitFilter)
                 )
                 .uri(paymentUri)
             )
@@ -15,6 +15,7 @@ public class SecurityConfig {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeExchange(exchanges -> exchanges
+                // Actuator is served on management.server.port, which is not reachable from outside
                 .pathMatchers("/actuator/**").permitAll()
                 .anyExchange().permitAll()
             );
@@ -1,8 +1,12 @@
 package com.microservices.apigateway.config;
 
+import com.microservices.common.security.IdentityHeaderCodec;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class SsoConfig {
 
@@ -15,6 +19,19 @@ public class SsoConfig {
     @Value("${sso.validate.enabled:true}")
     private boolean validateEnabled;
 
+    // remote: ask the SSO service per token; local: verify signed tokens against its published keys
+    @Value("${sso.mode:remote}")
+    private String mode;
+
+    // How long a signed identity header stays valid downstream, capped by the token's own expiry
+    @Value("${sso.identity.time-to-live:5m}")
+    private Duration identityTimeToLive;
+
+    @Bean
+    public IdentityHeaderCodec identityHeaderCodec(@Value("${sso.identity.secret}") String secret) {
+        return new IdentityHeaderCodec(secret);
+    }
+
     public String getSsoServiceUrl() {
         return ssoServiceUrl;
     }
@@ -26,5 +43,12 @@ public class SsoConfig {
     public boolean isValidateEnabled() {
         return validateEnabled;
     }
-}
 
+    public String getMode() {
+        return mode;
+    }
+
+    public Duration getIdentityTimeToLive() {
+        return identityTimeToLive;
+    }
+}
@@ -0,0 +1,91 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.microservices.apigateway.concurrency.GradientLimit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Caps in-flight requests per route and downstream instance at an adaptive limit, rejecting the excess
+ * with 503 instead of letting it pile up behind a slow instance. Runs after load balancing so the chosen
+ * instance is known.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter implements GatewayFilter, Ordered {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean enabled;
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                  @Value("${gateway.concurrency.enabled:true}") boolean enabled,
+                                  @Value("${gateway.concurrency.retry-after:1s}") Duration retryAfter) {
+        this.limiter = limiter;
+        this.enabled = enabled;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Event streams stay open indefinitely; their duration is not a latency signal
+        if (!enabled || exchange.getRequest().getHeaders().getAccept().contains(MediaType.TEXT_EVENT_STREAM)) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        URI target = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+        String instance = target != null ? target.getHost() + ":" + target.getPort() : "unknown";
+
+        GradientLimit limit = limiter.limitFor(routeId, instance);
+        int inFlightAtStart = limit.getInFlight();
+        if (!limit.tryAcquire()) {
+            log.warn("Concurrency limit {} reached for route {} on {}", limit.getLimit(), routeId, instance);
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+            return response.setComplete();
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+            .doFinally(signal -> {
+                try {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.ON_COMPLETE && (status == null || !status.is5xxServerError())) {
+                        limit.onSample(System.nanoTime() - start, inFlightAtStart + 1);
+                    } else if (signal != SignalType.CANCEL) {
+                        // A client hanging up says nothing about the downstream, errors and 5xx do
+                        limit.onDropped();
+                    }
+                } finally {
+                    limit.release();
+                }
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,53 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.common.loadbalancer.InstanceLoadTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Reports latency, failures and in-flight requests of load-balanced routes to {@link InstanceLoadTracker},
+ * which the latency-aware load balancer uses to pick instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstanceLoadFilter implements GlobalFilter, Ordered {
+
+    private final InstanceLoadTracker instanceLoadTracker;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+        InstanceLoadTracker.Call call = instanceLoadTracker.start(chosen.getServer().getHost(), chosen.getServer().getPort());
+        return chain.filter(exchange)
+            .doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is5xxServerError()) {
+                    call.failed();
+                } else {
+                    call.succeeded();
+                }
+            })
+            .doOnError(error -> call.failed())
+            .doOnCancel(call::cancelled);
+    }
+
+    // Inside ConcurrencyLimitFilter, so requests it rejects locally never reach the tracker as instance failures
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 2;
+    }
+}
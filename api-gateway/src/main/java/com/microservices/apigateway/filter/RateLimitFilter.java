@@ -1,14 +1,16 @@
 package com.microservices.apigateway.filter;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import com.microservices.apigateway.ratelimit.RateLimitKey;
+import com.microservices.apigateway.ratelimit.RateLimitPolicy;
+import com.microservices.apigateway.ratelimit.RateLimiter;
+import com.microservices.common.dto.UserInfo;
+import com.microservices.common.enums.UserRole;
 import lombok.extern.slf4j.Slf4j;
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -17,124 +19,93 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.net.InetSocketAddress;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 public class RateLimitFilter implements GatewayFilter, Ordered {
 
-    @Value("${gateway.rate-limit.capacity:100}")
-    private int capacity;
+    private static final String USER_SUBJECT = "user";
+    private static final String IP_SUBJECT = "ip";
 
-    @Value("${gateway.rate-limit.refill-tokens:100}")
-    private int refillTokens;
+    private static final int CACHED_REMAINING_VALUES = 10_000;
+    // Prebuilt so allowed requests do not format numbers
+    private static final String[] REMAINING_HEADER_VALUES = new String[CACHED_REMAINING_VALUES + 1];
 
-    @Value("${gateway.rate-limit.refill-duration-minutes:1}")
-    private int refillDurationMinutes;
-
-    @Value("${gateway.rate-limit.cache-cleanup-interval-minutes:60}")
-    private int cacheCleanupIntervalMinutes;
-
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService cleanupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "rate-limit-cleanup");
-        t.setDaemon(true);
-        return t;
-    });
-
-    @PostConstruct
-    public void init() {
-        // Schedule periodic cleanup of unused buckets
-        cleanupScheduler.scheduleAtFixedRate(
-            this::cleanupUnusedBuckets,
-            cacheCleanupIntervalMinutes,
-            cacheCleanupIntervalMinutes,
-            TimeUnit.MINUTES
-        );
-        log.info("Rate limit filter initialized with capacity: {}, refill: {} tokens per {} minutes",
-            capacity, refillTokens, refillDurationMinutes);
+    static {
+        for (int i = 0; i < REMAINING_HEADER_VALUES.length; i++) {
+            REMAINING_HEADER_VALUES[i] = String.valueOf(i);
+        }
     }
 
-    @PreDestroy
-    public void destroy() {
-        log.info("Shutting down rate limit cleanup scheduler");
-        cleanupScheduler.shutdown();
-        try {
-            if (!cleanupScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                cleanupScheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            cleanupScheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-        cache.clear();
+    private final RateLimiter rateLimiter;
+    private final RateLimitPolicy policy;
+    private final boolean trustForwardedHeaders;
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           RateLimitPolicy policy,
+                           @Value("${gateway.rate-limit.trust-forwarded-headers:true}") boolean trustForwardedHeaders) {
+        this.rateLimiter = rateLimiter;
+        this.policy = policy;
+        this.trustForwardedHeaders = trustForwardedHeaders;
+        log.info("Rate limit filter initialized with limiter: {}", rateLimiter.getClass().getSimpleName());
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String ip = getClientIp(request);
-
-        if (ip == null || ip.isEmpty() || "unknown".equals(ip)) {
-            log.warn("Unable to determine client IP, allowing request");
-            return chain.filter(exchange);
-        }
-
-        Bucket bucket = cache.computeIfAbsent(ip, k -> createNewBucket());
-
-        if (bucket.tryConsume(1)) {
-            long remaining = bucket.getAvailableTokens();
-            ServerHttpResponse response = exchange.getResponse();
-            response.getHeaders().add("X-RateLimit-Limit", String.valueOf(capacity));
-            response.getHeaders().add("X-RateLimit-Remaining", String.valueOf(remaining));
-            response.getHeaders().add("X-RateLimit-Reset", String.valueOf(
-                System.currentTimeMillis() / 1000 + (refillDurationMinutes * 60)
-            ));
-            return chain.filter(exchange);
+        // Authenticated callers are limited per user wherever they connect from, everyone else per IP
+        UserInfo user = exchange.getAttribute(SsoAuthFilter.USER_INFO_ATTRIBUTE);
+        String subjectKind;
+        String subjectId;
+        UserRole role = null;
+        if (user != null && user.getUserId() != null) {
+            subjectKind = USER_SUBJECT;
+            subjectId = user.getUserId();
+            role = user.getRole();
         } else {
-            ServerHttpResponse response = exchange.getResponse();
-            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
-            response.getHeaders().add("X-RateLimit-Limit", String.valueOf(capacity));
-            response.getHeaders().add("X-RateLimit-Remaining", String.valueOf(bucket.getAvailableTokens()));
-            response.getHeaders().add("X-RateLimit-Reset", String.valueOf(
-                System.currentTimeMillis() / 1000 + (refillDurationMinutes * 60)
-            ));
-            log.warn("Rate limit exceeded for IP: {}", ip);
-            return response.setComplete();
+            subjectId = getClientIp(request);
+            if (subjectId == null) {
+                log.warn("Unable to determine client IP, allowing request");
+                return chain.filter(exchange);
+            }
+            subjectKind = IP_SUBJECT;
         }
+
+        RateLimitPolicy.Tier tier = policy.resolve(request, role);
+        RateLimitKey key = new RateLimitKey(tier.bucket(), subjectKind, subjectId);
+        return rateLimiter.tryConsume(key, tier.limit(), tier.cost())
+            .flatMap(result -> {
+                HttpHeaders headers = exchange.getResponse().getHeaders();
+                headers.set("X-RateLimit-Limit", tier.limitHeaderValue());
+                headers.set("X-RateLimit-Remaining", remainingHeaderValue(result.remaining()));
+                headers.set("X-RateLimit-Reset", tier.resetHeaderValue());
+                if (result.allowed()) {
+                    return chain.filter(exchange);
+                }
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                log.warn("Rate limit exceeded for {}:{} on bucket {}", subjectKind, subjectId, tier.bucket());
+                return response.setComplete();
+            });
     }
 
-    private Bucket createNewBucket() {
-        Bandwidth limit = Bandwidth.builder()
-            .capacity(capacity)
-            .refillIntervally(refillTokens, Duration.ofMinutes(refillDurationMinutes))
-            .build();
-        return Bucket.builder().addLimit(limit).build();
+    private static String remainingHeaderValue(long remaining) {
+        return remaining < REMAINING_HEADER_VALUES.length
+            ? REMAINING_HEADER_VALUES[(int) Math.max(0, remaining)]
+            : String.valueOf(remaining);
     }
 
     private String getClientIp(ServerHttpRequest request) {
-        // Check X-Forwarded-For header (for proxies/load balancers)
-        String xForwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+        if (trustForwardedHeaders) {
             // X-Forwarded-For can contain multiple IPs, take the first one (original client)
-            String[] ips = xForwardedFor.split(",");
-            if (ips.length > 0) {
-                String ip = ips[0].trim();
-                if (!ip.isEmpty()) {
-                    return ip;
-                }
+            String ip = firstAddress(request.getHeaders().getFirst("X-Forwarded-For"));
+            if (ip != null) {
+                return ip;
+            }
+            ip = firstAddress(request.getHeaders().getFirst("X-Real-IP"));
+            if (ip != null) {
+                return ip;
             }
-        }
-
-        // Check X-Real-IP header
-        String xRealIp = request.getHeaders().getFirst("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp.trim();
         }
 
         // Fallback to remote address
@@ -142,34 +113,37 @@ public class RateLimitFilter implements GatewayFilter, Ordered {
         if (remoteAddress != null && remoteAddress.getAddress() != null) {
             return remoteAddress.getAddress().getHostAddress();
         }
-
-        return "unknown";
+        return null;
     }
 
     /**
-     * Cleanup unused buckets to prevent memory leaks.
-     * Removes buckets that haven't been used recently.
+     * Returns the first comma-separated entry of a header, trimmed, or null when there is none.
+     * A header holding a single bare address is returned as is, without copying.
      */
-    private void cleanupUnusedBuckets() {
-        try {
-            int initialSize = cache.size();
-            // Remove buckets that are at full capacity (unused)
-            cache.entrySet().removeIf(entry -> {
-                Bucket bucket = entry.getValue();
-                return bucket.getAvailableTokens() >= capacity;
-            });
-            int removed = initialSize - cache.size();
-            if (removed > 0) {
-                log.debug("Cleaned up {} unused rate limit buckets. Remaining: {}", removed, cache.size());
-            }
-        } catch (Exception e) {
-            log.error("Error during rate limit cache cleanup", e);
+    static String firstAddress(String header) {
+        if (header == null) {
+            return null;
+        }
+        int end = header.indexOf(',');
+        if (end < 0) {
+            end = header.length();
+        }
+        int start = 0;
+        while (start < end && Character.isWhitespace(header.charAt(start))) {
+            start++;
         }
+        while (end > start && Character.isWhitespace(header.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        return start == 0 && end == header.length() ? header : header.substring(start, end);
     }
 
+    // Runs right after SsoAuthFilter so the verified user is known
     @Override
     public int getOrder() {
-        return -100;
+        return -99;
     }
 }
-
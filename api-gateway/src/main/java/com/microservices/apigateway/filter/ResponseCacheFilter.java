@@ -0,0 +1,184 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.cache.ResponseCache;
+import com.microservices.common.dto.UserInfo;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves repeated GETs of cacheable routes from {@link ResponseCache}, per caller, and answers
+ * {@code If-None-Match} with 304 when the body has not changed. Successful writes through this instance
+ * invalidate the resources they touched right away; other instances learn of them from status events.
+ * Runs after authentication and rate limiting, so cached responses are still limited per caller.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    private static final String CACHE_HEADER = "X-Cache";
+    private static final String ANONYMOUS = "-";
+
+    private final ResponseCache responseCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        String path = request.getPath().value();
+        if (method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH || method == HttpMethod.DELETE) {
+            return chain.filter(exchange)
+                .doOnSuccess(done -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        responseCache.invalidateWithParents(path);
+                    }
+                });
+        }
+
+        Duration timeToLive = method == HttpMethod.GET ? responseCache.timeToLive(request.getPath().pathWithinApplication()) : null;
+        if (timeToLive == null || request.getHeaders().getAccept().contains(MediaType.TEXT_EVENT_STREAM)) {
+            return chain.filter(exchange);
+        }
+
+        UserInfo user = exchange.getAttribute(SsoAuthFilter.USER_INFO_ATTRIBUTE);
+        String caller = user != null && user.getUserId() != null ? user.getUserId() : ANONYMOUS;
+        ResponseCache.Key key = new ResponseCache.Key(path, request.getURI().getRawQuery(), caller);
+        List<String> ifNoneMatch = ifNoneMatch(request.getHeaders());
+
+        // Cache-Control: no-cache on the request forces a fetch, which refreshes the entry
+        if (!hasDirective(request.getHeaders(), "no-cache")) {
+            ResponseCache.CachedResponse cached = responseCache.get(key);
+            if (cached != null) {
+                return writeCached(exchange.getResponse(), cached, ifNoneMatch);
+            }
+        }
+        CachingResponse response = new CachingResponse(exchange.getResponse(), key, timeToLive, ifNoneMatch, System.nanoTime());
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    private static Mono<Void> writeCached(ServerHttpResponse response, ResponseCache.CachedResponse cached,
+                                          List<String> ifNoneMatch) {
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.set(CACHE_HEADER, "HIT");
+        if (matches(ifNoneMatch, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentType(cached.contentType());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static List<String> ifNoneMatch(HttpHeaders headers) {
+        try {
+            return headers.getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            // A malformed header only means the client cannot revalidate
+            return List.of();
+        }
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String directive) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && cacheControl.contains(directive);
+    }
+
+    // Weak comparison, as for GET revalidation
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    @Override
+    public int getOrder() {
+        return -98;
+    }
+
+    /**
+     * Buffers a 200 JSON response from the downstream, stores it with an ETag (the downstream's, or a hash
+     * of the body) and passes it on, or sends 304 if it matches the request's {@code If-None-Match}.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ResponseCache.Key key;
+        private final Duration timeToLive;
+        private final List<String> ifNoneMatch;
+        private final long fetchStartedNanos;
+
+        CachingResponse(ServerHttpResponse delegate, ResponseCache.Key key, Duration timeToLive,
+                        List<String> ifNoneMatch, long fetchStartedNanos) {
+            super(delegate);
+            this.key = key;
+            this.timeToLive = timeToLive;
+            this.ifNoneMatch = ifNoneMatch;
+            this.fetchStartedNanos = fetchStartedNanos;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            HttpStatusCode status = getStatusCode();
+            MediaType contentType = headers.getContentType();
+            if (status == null || status.value() != HttpStatus.OK.value() || contentType == null
+                || !contentType.isCompatibleWith(MediaType.APPLICATION_JSON) || hasDirective(headers, "no-store")) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(Flux.from(body))
+                .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                .flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    String etag = headers.getETag();
+                    if (etag == null) {
+                        etag = "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                        headers.setETag(etag);
+                    }
+                    responseCache.put(key, new ResponseCache.CachedResponse(contentType, etag, bytes, fetchStartedNanos, timeToLive));
+                    headers.set(CACHE_HEADER, "MISS");
+
+                    if (matches(ifNoneMatch, etag)) {
+                        setStatusCode(HttpStatus.NOT_MODIFIED);
+                        headers.remove(HttpHeaders.CONTENT_LENGTH);
+                        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                        headers.remove(HttpHeaders.CONTENT_TYPE);
+                        return getDelegate().setComplete();
+                    }
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.microservices.apigateway.filter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.apigateway.config.SsoConfig;
+import com.microservices.apigateway.sso.UserInfoResolver;
 import com.microservices.common.dto.UserInfo;
+import com.microservices.common.security.IdentityHeaderCodec;
+import com.microservices.common.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -12,7 +14,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
@@ -21,9 +22,12 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class SsoAuthFilter implements GlobalFilter, Ordered {
 
+    /** Exchange attribute holding the verified {@link UserInfo}; unlike the X-User-* headers it cannot come from the client. */
+    public static final String USER_INFO_ATTRIBUTE = SsoAuthFilter.class.getName() + ".userInfo";
+
     private final SsoConfig ssoConfig;
-    private final WebClient.Builder webClientBuilder;
-    private final ObjectMapper objectMapper;
+    private final UserInfoResolver userInfoResolver;
+    private final IdentityHeaderCodec identityHeaderCodec;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -39,22 +43,17 @@ public class SsoAuthFilter implements GlobalFilter, Ordered {
             return handleUnauthorized(exchange, "Missing authentication token");
         }
 
-        return getUserInfo(token)
+        return userInfoResolver.resolve(token)
             .flatMap(userInfo -> {
                 if (userInfo != null && userInfo.isAuthenticated()) {
-                    try {
-                        String userInfoJson = objectMapper.writeValueAsString(userInfo);
-                        ServerHttpRequest modifiedRequest = request.mutate()
-                            .header(ssoConfig.getTokenHeader(), token)
-                            .header("X-User-Info", userInfoJson)
-                            .header("X-User-Role", userInfo.getRole().name())
-                            .header("X-User-Id", userInfo.getUserId())
-                            .build();
-                        return chain.filter(exchange.mutate().request(modifiedRequest).build());
-                    } catch (Exception e) {
-                        log.error("Error serializing user info", e);
-                        return handleUnauthorized(exchange, "Token validation failed");
-                    }
+                    ServerHttpRequest modifiedRequest = request.mutate()
+                        .header(ssoConfig.getTokenHeader(), token)
+                        .header(IdentityHeaderCodec.HEADER, identityHeaderCodec.encode(toPrincipal(userInfo)))
+                        .header("X-User-Role", userInfo.getRole().name())
+                        .header("X-User-Id", userInfo.getUserId())
+                        .build();
+                    exchange.getAttributes().put(USER_INFO_ATTRIBUTE, userInfo);
+                    return chain.filter(exchange.mutate().request(modifiedRequest).build());
                 } else {
                     return handleUnauthorized(exchange, "Invalid authentication token");
                 }
@@ -65,19 +64,18 @@ public class SsoAuthFilter implements GlobalFilter, Ordered {
             });
     }
 
-    private Mono<UserInfo> getUserInfo(String token) {
-        return webClientBuilder
-            .baseUrl(ssoConfig.getSsoServiceUrl())
-            .build()
-            .get()
-            .uri("/auth/userinfo")
-            .header(ssoConfig.getTokenHeader(), token)
-            .retrieve()
-            .bodyToMono(UserInfo.class)
-            .onErrorResume(error -> {
-                log.error("Failed to get user info from SSO service", error);
-                return Mono.empty();
-            });
+    /**
+     * Expiry falls on a time-to-live window boundary one to two windows ahead, so a user sends the same header
+     * value for a whole window and services can reuse what they verified.
+     */
+    private UserPrincipal toPrincipal(UserInfo userInfo) {
+        long ttl = Math.max(1, ssoConfig.getIdentityTimeToLive().toSeconds());
+        long now = System.currentTimeMillis() / 1000;
+        long expiresAt = (now / ttl + 2) * ttl;
+        if (userInfo.getExpiresAt() != null) {
+            expiresAt = Math.min(expiresAt, userInfo.getExpiresAt().getEpochSecond());
+        }
+        return new UserPrincipal(userInfo.getUserId(), userInfo.getUsername(), userInfo.getRole(), expiresAt);
     }
 
     private Mono<Void> handleUnauthorized(ServerWebExchange exchange, String message) {
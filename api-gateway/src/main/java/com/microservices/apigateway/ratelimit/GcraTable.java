@@ -0,0 +1,130 @@
+package com.microservices.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free store of GCRA (generic cell rate algorithm) state. Each key occupies one
+ * {@code long}: a 20-bit fingerprint of the key and its 44-bit theoretical arrival time (TAT) in
+ * 100µs ticks since the table was created. Keys are placed by open addressing within a short probe
+ * window; when the window is full, the entry with the oldest TAT, i.e. the one idle the longest, is
+ * evicted. Memory is fixed at construction no matter how many distinct keys arrive, and a decision
+ * allocates nothing.
+ * <p>
+ * Two keys sharing a slot window and fingerprint share a limit; with the default size that needs
+ * about 36 matching hash bits.
+ */
+final class GcraTable {
+
+    private static final long NANOS_PER_TICK = 100_000;
+    private static final int FINGERPRINT_BITS = 20;
+    private static final int TAT_BITS = 64 - FINGERPRINT_BITS;
+    private static final long TAT_MASK = (1L << TAT_BITS) - 1;
+    private static final int PROBE_WINDOW = 8;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+
+    GcraTable(int requestedSize) {
+        int size = Integer.highestOneBit(Math.max(PROBE_WINDOW, requestedSize - 1)) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Tries to spend {@code tokens} for the key. Returns the tokens left after the call, or
+     * {@code -1 - remaining} when the request is denied.
+     */
+    long tryConsume(long keyHash, RateLimit limit, long tokens) {
+        long emissionTicks = Math.max(1, limit.refillPeriod().toNanos() / NANOS_PER_TICK / limit.refillTokens());
+        long burstTicks = emissionTicks * limit.capacity();
+        long now = (System.nanoTime() - startNanos) / NANOS_PER_TICK;
+        long fingerprint = fingerprint(keyHash);
+        int home = (int) keyHash & mask;
+
+        while (true) {
+            int slot = -1;
+            long current = 0;
+            int victim = -1;
+            long victimTat = Long.MAX_VALUE;
+            for (int i = 0; i < PROBE_WINDOW; i++) {
+                int index = (home + i) & mask;
+                long value = slots.get(index);
+                if (value == 0 || value >>> TAT_BITS == fingerprint) {
+                    slot = index;
+                    current = value;
+                    break;
+                }
+                long tat = value & TAT_MASK;
+                if (tat < victimTat) {
+                    victim = index;
+                    victimTat = tat;
+                }
+            }
+
+            long tat;
+            if (slot >= 0 && current != 0) {
+                tat = Math.max(current & TAT_MASK, now);
+            } else {
+                // New key: an empty slot, or the least recently active entry in the window
+                if (slot < 0) {
+                    slot = victim;
+                    current = slots.get(slot);
+                }
+                tat = now;
+            }
+
+            long newTat = tat + tokens * emissionTicks;
+            if (newTat - now > burstTicks) {
+                long remaining = (now + burstTicks - tat) / emissionTicks;
+                // A denied new key still claims its slot so it is tracked from now on
+                if (current == 0 || current >>> TAT_BITS != fingerprint) {
+                    slots.compareAndSet(slot, current, pack(fingerprint, tat));
+                }
+                return -1 - Math.max(0, remaining);
+            }
+            if (slots.compareAndSet(slot, current, pack(fingerprint, newTat))) {
+                return (now + burstTicks - newTat) / emissionTicks;
+            }
+            // Lost a race on the slot; re-read and decide again
+        }
+    }
+
+    /**
+     * 64-bit hash of the key's {@code bucket:kind:id} form, computed over its parts without joining them.
+     */
+    static long hash(RateLimitKey key) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, key.bucket());
+        h = mix(h, ':');
+        h = mix(h, key.kind());
+        h = mix(h, ':');
+        h = mix(h, key.id());
+        // Final avalanche so both the slot index (low bits) and the fingerprint (high bits) are well mixed
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long mix(long h, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            h = mix(h, text.charAt(i));
+        }
+        return h;
+    }
+
+    private static long mix(long h, char c) {
+        return (h ^ c) * 0x100000001b3L;
+    }
+
+    private static long fingerprint(long keyHash) {
+        long fingerprint = keyHash >>> TAT_BITS;
+        // Zero marks an empty slot
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static long pack(long fingerprint, long tat) {
+        return fingerprint << TAT_BITS | (tat & TAT_MASK);
+    }
+}
@@ -0,0 +1,31 @@
+package com.microservices.apigateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-instance limits held in a fixed-size {@link GcraTable}, so memory stays constant however many
+ * distinct clients arrive. Used directly with {@code gateway.rate-limit.backend=local}, and as the
+ * fallback while Redis is unreachable.
+ */
+@Slf4j
+@Component
+public class LocalRateLimiter implements RateLimiter {
+
+    private final GcraTable table;
+
+    public LocalRateLimiter(@Value("${gateway.rate-limit.local.table-size:262144}") int tableSize) {
+        this.table = new GcraTable(tableSize);
+        log.info("Local rate limit table sized for {} keys", tableSize);
+    }
+
+    @Override
+    public Mono<RateLimitResult> tryConsume(RateLimitKey key, RateLimit limit, long tokens) {
+        long result = table.tryConsume(GcraTable.hash(key), limit, tokens);
+        return Mono.just(result >= 0
+            ? new RateLimitResult(true, result)
+            : new RateLimitResult(false, -1 - result));
+    }
+}
@@ -0,0 +1,9 @@
+package com.microservices.apigateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Token bucket shape: up to {@code capacity} tokens, refilled by {@code refillTokens} every {@code refillPeriod}.
+ */
+public record RateLimit(long capacity, long refillTokens, Duration refillPeriod) {
+}
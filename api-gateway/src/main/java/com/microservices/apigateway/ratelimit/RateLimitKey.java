@@ -0,0 +1,14 @@
+package com.microservices.apigateway.ratelimit;
+
+/**
+ * Identifies the bucket a caller spends from: the quota bucket, the kind of subject ({@code user} or
+ * {@code ip}) and the subject's id. The parts stay separate so a decision can hash them in place; the
+ * joined {@code bucket:kind:id} form is only built when a Redis key is needed.
+ */
+public record RateLimitKey(String bucket, String kind, String id) {
+
+    @Override
+    public String toString() {
+        return bucket + ':' + kind + ':' + id;
+    }
+}
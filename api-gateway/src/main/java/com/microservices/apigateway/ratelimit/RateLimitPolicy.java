@@ -0,0 +1,206 @@
+package com.microservices.apigateway.ratelimit;
+
+import com.microservices.common.enums.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which bucket, limit and cost apply to a request, from the quotas in {@link RateLimitProperties}.
+ * Quotas are compiled once and rebuilt whenever {@code gateway.rate-limit.*} changes in the environment
+ * (for example via {@code POST /actuator/refresh}); an invalid change is logged and the previous quotas kept.
+ */
+@Slf4j
+@Component
+public class RateLimitPolicy implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final String PREFIX = "gateway.rate-limit";
+    private static final String DEFAULT_BUCKET = "default";
+
+    private final Environment environment;
+    private volatile Policy policy;
+
+    public RateLimitPolicy(Environment environment) {
+        this.environment = environment;
+        this.policy = compile(bind());
+        log.info("Rate limit policy loaded: default {}, {} route quotas", policy.defaults().anonymous().limit(), policy.routes().size());
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX))) {
+            return;
+        }
+        try {
+            policy = compile(bind());
+            log.info("Rate limit policy reloaded: default {}, {} route quotas", policy.defaults().anonymous().limit(), policy.routes().size());
+        } catch (RuntimeException e) {
+            log.error("Invalid rate limit configuration, keeping the previous quotas", e);
+        }
+    }
+
+    /**
+     * Returns the tier for the request; {@code role} is null for callers that are not authenticated.
+     */
+    public Tier resolve(ServerHttpRequest request, UserRole role) {
+        Policy current = policy;
+        PathContainer path = request.getPath().pathWithinApplication();
+        HttpMethod method = request.getMethod();
+        for (RouteTiers route : current.routes()) {
+            if (route.matches(method, path)) {
+                return route.tiers().forRole(role);
+            }
+        }
+        return current.defaults().forRole(role);
+    }
+
+    private RateLimitProperties bind() {
+        return Binder.get(environment)
+            .bind(PREFIX, RateLimitProperties.class)
+            .orElseGet(RateLimitProperties::new);
+    }
+
+    private static Policy compile(RateLimitProperties properties) {
+        RateLimit base = new RateLimit(properties.getCapacity(), properties.getRefillTokens(),
+            Duration.ofMinutes(properties.getRefillDurationMinutes()));
+        Map<UserRole, RateLimit> roleLimits = new EnumMap<>(UserRole.class);
+        for (UserRole role : UserRole.values()) {
+            roleLimits.put(role, apply(base, properties.getRoles().get(role)));
+        }
+        Tiers defaults = tiers(DEFAULT_BUCKET, 1, base, roleLimits);
+
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<RouteTiers> routes = new ArrayList<>();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getPath() == null || route.getPath().isBlank()) {
+                throw new IllegalArgumentException("Rate limit route without a path: " + route.getName());
+            }
+            String name = route.getName() != null ? route.getName() : route.getPath();
+            Set<HttpMethod> methods = route.getMethods().stream()
+                .map(method -> HttpMethod.valueOf(method.trim().toUpperCase(Locale.ROOT)))
+                .collect(Collectors.toSet());
+
+            boolean ownBucket = route.getCapacity() != null || route.getRefillTokens() != null
+                || route.getRefillPeriod() != null || !route.getRoles().isEmpty();
+            RateLimitProperties.Quota routeQuota = new RateLimitProperties.Quota();
+            routeQuota.setCapacity(route.getCapacity());
+            routeQuota.setRefillTokens(route.getRefillTokens());
+            routeQuota.setRefillPeriod(route.getRefillPeriod());
+
+            Map<UserRole, RateLimit> routeRoleLimits = new EnumMap<>(UserRole.class);
+            for (UserRole role : UserRole.values()) {
+                routeRoleLimits.put(role, apply(apply(roleLimits.get(role), routeQuota), route.getRoles().get(role)));
+            }
+            Tiers tiers = tiers(ownBucket ? name : DEFAULT_BUCKET, route.getCost(), apply(base, routeQuota), routeRoleLimits);
+            routes.add(new RouteTiers(parser.parse(route.getPath()), methods, tiers));
+        }
+        return new Policy(defaults, List.copyOf(routes));
+    }
+
+    private static RateLimit apply(RateLimit limit, RateLimitProperties.Quota quota) {
+        if (quota == null) {
+            return limit;
+        }
+        return new RateLimit(
+            quota.getCapacity() != null ? quota.getCapacity() : limit.capacity(),
+            quota.getRefillTokens() != null ? quota.getRefillTokens() : limit.refillTokens(),
+            quota.getRefillPeriod() != null ? quota.getRefillPeriod() : limit.refillPeriod());
+    }
+
+    private static Tiers tiers(String bucket, long cost, RateLimit anonymous, Map<UserRole, RateLimit> roleLimits) {
+        Map<UserRole, Tier> byRole = new EnumMap<>(UserRole.class);
+        roleLimits.forEach((role, limit) -> byRole.put(role, new Tier(bucket, limit, cost)));
+        return new Tiers(new Tier(bucket, anonymous, cost), byRole);
+    }
+
+    private record Policy(Tiers defaults, List<RouteTiers> routes) {
+    }
+
+    private record Tiers(Tier anonymous, Map<UserRole, Tier> byRole) {
+
+        Tier forRole(UserRole role) {
+            return role == null ? anonymous : byRole.get(role);
+        }
+    }
+
+    private record RouteTiers(PathPattern pattern, Set<HttpMethod> methods, Tiers tiers) {
+
+        boolean matches(HttpMethod method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+
+    /**
+     * One compiled quota: the bucket it draws from, its limit and the tokens each request costs.
+     * Header values are built here once rather than per request.
+     */
+    public static final class Tier {
+
+        private final String bucket;
+        private final RateLimit limit;
+        private final long cost;
+        private final String limitHeaderValue;
+        private volatile ResetHeader resetHeader = new ResetHeader(-1, "");
+
+        Tier(String bucket, RateLimit limit, long cost) {
+            if (limit.capacity() <= 0 || limit.refillTokens() <= 0 || !limit.refillPeriod().isPositive() || cost <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit for bucket " + bucket + ": " + limit + ", cost " + cost);
+            }
+            if (cost > limit.capacity()) {
+                log.warn("Rate limit bucket {} costs {} tokens per request but holds only {}; every request will be rejected",
+                    bucket, cost, limit.capacity());
+            }
+            this.bucket = bucket;
+            this.limit = limit;
+            this.cost = cost;
+            this.limitHeaderValue = String.valueOf(limit.capacity());
+        }
+
+        public String bucket() {
+            return bucket;
+        }
+
+        public RateLimit limit() {
+            return limit;
+        }
+
+        public long cost() {
+            return cost;
+        }
+
+        public String limitHeaderValue() {
+            return limitHeaderValue;
+        }
+
+        // Only changes once a second, so it is rebuilt at most once a second
+        public String resetHeaderValue() {
+            long nowSeconds = System.currentTimeMillis() / 1000;
+            ResetHeader current = resetHeader;
+            if (current.second() != nowSeconds) {
+                current = new ResetHeader(nowSeconds, String.valueOf(nowSeconds + limit.refillPeriod().toSeconds()));
+                resetHeader = current;
+            }
+            return current.value();
+        }
+    }
+
+    private record ResetHeader(long second, String value) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.microservices.apigateway.ratelimit;
+
+import com.microservices.common.enums.UserRole;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quotas bound from {@code gateway.rate-limit.*}. The top-level values are the default quota; {@code roles}
+ * overrides it per role and {@code routes} per path, each route optionally per role as well.
+ */
+@Data
+public class RateLimitProperties {
+
+    private long capacity = 100;
+    private long refillTokens = 100;
+    private long refillDurationMinutes = 1;
+    private Map<UserRole, Quota> roles = new EnumMap<>(UserRole.class);
+    // First matching route wins
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Quota {
+        private Long capacity;
+        private Long refillTokens;
+        private Duration refillPeriod;
+    }
+
+    @Data
+    public static class Route {
+        private String name;
+        // Gateway path pattern, e.g. /api/payments/**
+        private String path;
+        // Empty matches every method
+        private List<String> methods = new ArrayList<>();
+        // Tokens taken per request
+        private long cost = 1;
+        // Without a capacity the route shares the caller's default bucket, only at its own cost
+        private Long capacity;
+        private Long refillTokens;
+        private Duration refillPeriod;
+        private Map<UserRole, Quota> roles = new EnumMap<>(UserRole.class);
+    }
+}
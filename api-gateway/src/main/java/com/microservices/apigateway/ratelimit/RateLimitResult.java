@@ -0,0 +1,4 @@
+package com.microservices.apigateway.ratelimit;
+
+public record RateLimitResult(boolean allowed, long remaining) {
+}
@@ -0,0 +1,13 @@
+package com.microservices.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Decides whether a request identified by {@code key} may proceed. The backend is chosen with
+ * {@code gateway.rate-limit.backend}: {@code redis} shares limits across gateway instances,
+ * {@code local} keeps them per instance.
+ */
+public interface RateLimiter {
+
+    Mono<RateLimitResult> tryConsume(RateLimitKey key, RateLimit limit, long tokens);
+}
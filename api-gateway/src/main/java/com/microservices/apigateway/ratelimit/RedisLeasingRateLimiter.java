@@ -0,0 +1,202 @@
+package com.microservices.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide token buckets kept in Redis. Each instance leases up to {@code lease-size} tokens per
+ * key at a time and spends them locally, so most requests are decided without a Redis round trip.
+ * Leased tokens are already debited from the shared bucket, so the cluster never admits more than
+ * the configured limit; an idle instance may hold back at most one lease per key.
+ * <p>
+ * While Redis is unreachable, requests are limited per instance by {@link LocalRateLimiter}.
+ */
+@Slf4j
+@Component
+@Primary
+@ConditionalOnProperty(name = "gateway.rate-limit.backend", havingValue = "redis", matchIfMissing = true)
+public class RedisLeasingRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    // Refills the bucket from the Redis clock, then grants up to ARGV[4] tokens.
+    // Returns {granted, tokens left in the bucket}.
+    private static final String LEASE_LUA = """
+        local capacity = tonumber(ARGV[1])
+        local refill_tokens = tonumber(ARGV[2])
+        local refill_period_ms = tonumber(ARGV[3])
+        local requested = tonumber(ARGV[4])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+        local tokens = tonumber(state[1])
+        local ts = tonumber(state[2])
+        if tokens == nil or ts == nil then
+          tokens = capacity
+          ts = now
+        end
+        if now > ts then
+          tokens = math.min(capacity, tokens + (now - ts) * refill_tokens / refill_period_ms)
+          ts = now
+        end
+        local granted = math.min(requested, math.floor(tokens))
+        tokens = tokens - granted
+        redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))
+        redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * refill_period_ms / refill_tokens))
+        return {granted, math.floor(tokens)}
+        """;
+
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<Long>> LEASE_SCRIPT =
+        RedisScript.of(LEASE_LUA, (Class<List<Long>>) (Class<?>) List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final LocalRateLimiter fallback;
+    private final Cache<RateLimitKey, Lease> leases;
+    private final long leaseSize;
+    private final Duration redisTimeout;
+    private final Duration redisRetryInterval;
+    // nanoTime before which Redis is skipped after a failure
+    private final AtomicLong redisAvailableAt = new AtomicLong(System.nanoTime());
+
+    private final Counter leaseHits;
+    private final Counter leaseFetches;
+    private final Counter fallbackDecisions;
+
+    public RedisLeasingRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                   LocalRateLimiter fallback,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${gateway.rate-limit.redis.lease-size:10}") long leaseSize,
+                                   @Value("${gateway.rate-limit.redis.lease-time-to-live:10s}") Duration leaseTimeToLive,
+                                   @Value("${gateway.rate-limit.redis.timeout:100ms}") Duration redisTimeout,
+                                   @Value("${gateway.rate-limit.redis.retry-interval:5s}") Duration redisRetryInterval) {
+        this.redisTemplate = redisTemplate;
+        this.fallback = fallback;
+        this.leaseSize = leaseSize;
+        this.redisTimeout = redisTimeout;
+        this.redisRetryInterval = redisRetryInterval;
+        // Unused leases are dropped; their tokens were already taken from the shared bucket.
+        // Keyed by the parts, so only a lease fetch builds the joined Redis key
+        this.leases = Caffeine.newBuilder()
+            .expireAfterAccess(leaseTimeToLive)
+            .maximumSize(100_000)
+            .build();
+
+        this.leaseHits = decisionCounter(meterRegistry, "lease");
+        this.leaseFetches = decisionCounter(meterRegistry, "redis");
+        this.fallbackDecisions = decisionCounter(meterRegistry, "fallback");
+    }
+
+    @Override
+    public Mono<RateLimitResult> tryConsume(RateLimitKey key, RateLimit limit, long tokens) {
+        return Mono.defer(() -> {
+            if (System.nanoTime() - redisAvailableAt.get() < 0) {
+                fallbackDecisions.increment();
+                return fallback.tryConsume(key, limit, tokens);
+            }
+
+            Lease lease = leases.get(key, k -> new Lease());
+            if (lease.tryTake(tokens)) {
+                leaseHits.increment();
+                return Mono.just(new RateLimitResult(true, lease.remaining()));
+            }
+
+            long requested = Math.max(tokens, leaseSize);
+            return lease.refill(() -> fetchLease(key, limit, requested))
+                .flatMap(grant -> {
+                    if (lease.tryTake(tokens)) {
+                        return Mono.just(new RateLimitResult(true, lease.remaining()));
+                    }
+                    // Concurrent requests spent the new lease first; go back only if Redis had more to give
+                    return grant.granted() < requested
+                        ? Mono.just(new RateLimitResult(false, lease.remaining()))
+                        : tryConsume(key, limit, tokens);
+                })
+                .onErrorResume(error -> {
+                    redisAvailableAt.set(System.nanoTime() + redisRetryInterval.toNanos());
+                    log.warn("Redis rate limiting unavailable, using local limits for {}", redisRetryInterval, error);
+                    fallbackDecisions.increment();
+                    return fallback.tryConsume(key, limit, tokens);
+                });
+        });
+    }
+
+    private Mono<Grant> fetchLease(RateLimitKey key, RateLimit limit, long requested) {
+        leaseFetches.increment();
+        List<String> args = List.of(
+            String.valueOf(limit.capacity()),
+            String.valueOf(limit.refillTokens()),
+            String.valueOf(limit.refillPeriod().toMillis()),
+            String.valueOf(requested));
+        return redisTemplate.execute(LEASE_SCRIPT, List.of(KEY_PREFIX + key), args)
+            .next()
+            .timeout(redisTimeout)
+            .map(result -> new Grant(result.get(0), result.get(1)));
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("gateway.rate-limit.decisions")
+            .description("Rate limit decisions by where the tokens came from")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    private record Grant(long granted, long remaining) {
+    }
+
+    private static final class Lease {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicReference<Mono<Grant>> inFlightRefill = new AtomicReference<>();
+        private volatile long sharedRemaining;
+
+        boolean tryTake(long n) {
+            long current;
+            do {
+                current = tokens.get();
+                if (current < n) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - n));
+            return true;
+        }
+
+        long remaining() {
+            return tokens.get() + sharedRemaining;
+        }
+
+        // Concurrent misses on one key share a single Redis call; the grant is added exactly once
+        Mono<Grant> refill(Supplier<Mono<Grant>> fetch) {
+            Mono<Grant> running = inFlightRefill.get();
+            if (running != null) {
+                return running;
+            }
+            AtomicReference<Mono<Grant>> self = new AtomicReference<>();
+            Mono<Grant> refill = Mono.defer(fetch)
+                .doOnNext(grant -> {
+                    tokens.addAndGet(grant.granted());
+                    sharedRemaining = grant.remaining();
+                })
+                .doFinally(signal -> inFlightRefill.compareAndSet(self.get(), null))
+                .cache();
+            self.set(refill);
+            return inFlightRefill.compareAndSet(null, refill) ? refill : refill(fetch);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.microservices.apigateway.sso;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the SSO service's signing keys in memory and refreshes them every {@code jwk-refresh-interval}.
+ * A token signed with an unknown key triggers an early refresh, at most once per
+ * {@code jwk-min-refresh-interval}, so key rotation does not wait for the next scheduled fetch.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sso.mode", havingValue = "local")
+public class JwkSetProvider {
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+
+    private volatile JWKSet keys = new JWKSet();
+    private final AtomicReference<Mono<JWKSet>> inFlightRefresh = new AtomicReference<>();
+    private final AtomicLong lastRefreshNanos = new AtomicLong(System.nanoTime() - Duration.ofDays(1).toNanos());
+    private Disposable scheduledRefresh;
+
+    public JwkSetProvider(WebClient.Builder webClientBuilder,
+                          @Value("${sso.local.jwk-set-uri:${sso.service.url:http://sso-service:8083}/.well-known/jwks.json}") String jwkSetUri,
+                          @Value("${sso.local.jwk-refresh-interval:5m}") Duration refreshInterval,
+                          @Value("${sso.local.jwk-min-refresh-interval:30s}") Duration minRefreshInterval) {
+        this.webClient = webClientBuilder.clone().build();
+        this.jwkSetUri = jwkSetUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduledRefresh = Flux.interval(Duration.ZERO, refreshInterval)
+            .concatMap(tick -> refresh().onErrorResume(error -> Mono.empty()))
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.dispose();
+        }
+    }
+
+    /**
+     * Returns the keys that may have signed the token, refreshing once if none are known yet.
+     */
+    public Flux<JWK> select(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        return Flux.defer(() -> {
+            List<JWK> matches = selector.select(keys);
+            if (!matches.isEmpty()) {
+                return Flux.fromIterable(matches);
+            }
+            long sinceLastRefresh = System.nanoTime() - lastRefreshNanos.get();
+            if (sinceLastRefresh < minRefreshInterval.toNanos()) {
+                return Flux.empty();
+            }
+            return refresh().flatMapIterable(selector::select);
+        });
+    }
+
+    // Concurrent callers share one fetch; a failed fetch keeps the previous keys
+    private Mono<JWKSet> refresh() {
+        Mono<JWKSet> running = inFlightRefresh.get();
+        if (running != null) {
+            return running;
+        }
+        AtomicReference<Mono<JWKSet>> self = new AtomicReference<>();
+        Mono<JWKSet> fetch = webClient.get()
+            .uri(jwkSetUri)
+            .retrieve()
+            .bodyToMono(String.class)
+            .map(body -> {
+                try {
+                    return JWKSet.parse(body);
+                } catch (ParseException e) {
+                    throw new IllegalStateException("Invalid JWK set from " + jwkSetUri, e);
+                }
+            })
+            .doOnNext(jwkSet -> {
+                keys = jwkSet;
+                log.debug("Refreshed SSO signing keys: {} keys", jwkSet.getKeys().size());
+            })
+            .doOnError(error -> log.warn("Failed to refresh SSO signing keys from {}, keeping {} known keys",
+                jwkSetUri, keys.getKeys().size(), error))
+            .doFinally(signal -> {
+                lastRefreshNanos.set(System.nanoTime());
+                inFlightRefresh.compareAndSet(self.get(), null);
+            })
+            .cache();
+        self.set(fetch);
+        return inFlightRefresh.compareAndSet(null, fetch) ? fetch : refresh();
+    }
+}
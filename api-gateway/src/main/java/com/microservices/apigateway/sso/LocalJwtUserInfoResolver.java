@@ -0,0 +1,94 @@
+package com.microservices.apigateway.sso;
+
+import com.microservices.common.dto.UserInfo;
+import com.microservices.common.enums.UserRole;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * Verifies signed SSO tokens in the gateway and builds {@link UserInfo} from their claims, so no
+ * request waits on the SSO service. Signature, expiry and (when configured) issuer are checked on
+ * the calling thread against keys held by {@link JwkSetProvider}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sso.mode", havingValue = "local")
+public class LocalJwtUserInfoResolver implements UserInfoResolver {
+
+    private static final UserInfo REJECTED = UserInfo.builder().authenticated(false).build();
+
+    private final NimbusReactiveJwtDecoder jwtDecoder;
+    private final String usernameClaim;
+    private final String roleClaim;
+
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public LocalJwtUserInfoResolver(JwkSetProvider jwkSetProvider,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${sso.local.jws-algorithm:RS256}") String jwsAlgorithm,
+                                    @Value("${sso.local.issuer:}") String issuer,
+                                    @Value("${sso.local.username-claim:preferred_username}") String usernameClaim,
+                                    @Value("${sso.local.role-claim:role}") String roleClaim) {
+        this.jwtDecoder = NimbusReactiveJwtDecoder.withJwkSource(jwkSetProvider::select)
+            .jwsAlgorithm(SignatureAlgorithm.from(jwsAlgorithm))
+            .build();
+        this.jwtDecoder.setJwtValidator(issuer.isBlank()
+            ? JwtValidators.createDefault()
+            : JwtValidators.createDefaultWithIssuer(issuer));
+        this.usernameClaim = usernameClaim;
+        this.roleClaim = roleClaim;
+
+        this.accepted = Counter.builder("gateway.sso.local.verifications").tag("outcome", "valid").register(meterRegistry);
+        this.rejected = Counter.builder("gateway.sso.local.verifications").tag("outcome", "invalid").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<UserInfo> resolve(String token) {
+        return jwtDecoder.decode(token)
+            .map(this::toUserInfo)
+            .onErrorResume(BadJwtException.class, error -> {
+                log.debug("Rejected SSO token: {}", error.getMessage());
+                return Mono.just(REJECTED);
+            })
+            .doOnNext(userInfo -> (userInfo.isAuthenticated() ? accepted : rejected).increment());
+    }
+
+    private UserInfo toUserInfo(Jwt jwt) {
+        UserRole role = parseRole(jwt.getClaimAsString(roleClaim));
+        if (role == null || jwt.getSubject() == null) {
+            log.debug("Rejected SSO token without subject or known role");
+            return REJECTED;
+        }
+        return UserInfo.builder()
+            .userId(jwt.getSubject())
+            .username(jwt.getClaimAsString(usernameClaim))
+            .role(role)
+            .authenticated(true)
+            .expiresAt(jwt.getExpiresAt())
+            .build();
+    }
+
+    private static UserRole parseRole(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UserRole.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.microservices.apigateway.sso;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.microservices.apigateway.config.SsoConfig;
+import com.microservices.common.dto.UserInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Resolves SSO tokens to {@link UserInfo} through a local cache in front of {@code /auth/userinfo}.
+ * Valid tokens are cached until shortly before they expire (capped by {@code max-time-to-live}),
+ * rejected tokens for {@code negative-time-to-live}. Concurrent lookups of the same token share one
+ * call. SSO outages are not cached, so the next request tries again.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sso.mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteUserInfoResolver implements UserInfoResolver {
+
+    private final WebClient ssoWebClient;
+    private final String tokenHeader;
+    private final AsyncCache<String, Validation> validations;
+    private final Duration maxTimeToLive;
+    private final Duration negativeTimeToLive;
+    private final Duration expirySkew;
+
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+    private final Timer errorTimer;
+
+    public RemoteUserInfoResolver(SsoConfig ssoConfig,
+                                  WebClient.Builder webClientBuilder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${sso.cache.maximum-size:100000}") long maximumSize,
+                                  @Value("${sso.cache.max-time-to-live:5m}") Duration maxTimeToLive,
+                                  @Value("${sso.cache.negative-time-to-live:10s}") Duration negativeTimeToLive,
+                                  @Value("${sso.cache.expiry-skew:5s}") Duration expirySkew) {
+        this.ssoWebClient = webClientBuilder.clone().baseUrl(ssoConfig.getSsoServiceUrl()).build();
+        this.tokenHeader = ssoConfig.getTokenHeader();
+        this.maxTimeToLive = maxTimeToLive;
+        this.negativeTimeToLive = negativeTimeToLive;
+        this.expirySkew = expirySkew;
+        this.validations = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new ValidationExpiry())
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, validations.synchronous(), "ssoTokens");
+
+        this.validTimer = validationTimer(meterRegistry, "valid");
+        this.invalidTimer = validationTimer(meterRegistry, "invalid");
+        this.errorTimer = validationTimer(meterRegistry, "error");
+    }
+
+    @Override
+    public Mono<UserInfo> resolve(String token) {
+        // The future is shared by every waiter, so one caller cancelling must not cancel it
+        return Mono.fromFuture(validations.get(token, (key, executor) -> fetch(key).toFuture()), true)
+            .map(Validation::userInfo);
+    }
+
+    private Mono<Validation> fetch(String token) {
+        long start = System.nanoTime();
+        return ssoWebClient
+            .get()
+            .uri("/auth/userinfo")
+            .header(tokenHeader, token)
+            .retrieve()
+            .bodyToMono(UserInfo.class)
+            .map(userInfo -> userInfo.isAuthenticated() ? new Validation(userInfo) : Validation.INVALID)
+            .defaultIfEmpty(Validation.INVALID)
+            .onErrorResume(WebClientResponseException.class, error -> isRejection(error)
+                ? Mono.just(Validation.INVALID)
+                : Mono.error(error))
+            .doOnSuccess(validation -> (validation.isValid() ? validTimer : invalidTimer)
+                .record(Duration.ofNanos(System.nanoTime() - start)))
+            .doOnError(error -> {
+                errorTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                log.error("Failed to get user info from SSO service", error);
+            });
+    }
+
+    private static boolean isRejection(WebClientResponseException error) {
+        return error.getStatusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED)
+            || error.getStatusCode().isSameCodeAs(HttpStatus.FORBIDDEN);
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("gateway.sso.validation")
+            .description("Token validations sent to the SSO service")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private record Validation(UserInfo userInfo) {
+        static final Validation INVALID = new Validation(UserInfo.builder().authenticated(false).build());
+
+        boolean isValid() {
+            return userInfo.isAuthenticated();
+        }
+    }
+
+    private final class ValidationExpiry implements Expiry<String, Validation> {
+
+        @Override
+        public long expireAfterCreate(String token, Validation validation, long currentTime) {
+            if (!validation.isValid()) {
+                return negativeTimeToLive.toNanos();
+            }
+            Duration timeToLive = maxTimeToLive;
+            Instant expiresAt = validation.userInfo().getExpiresAt();
+            if (expiresAt != null) {
+                Duration remaining = Duration.between(Instant.now(), expiresAt.minus(expirySkew));
+                timeToLive = remaining.compareTo(timeToLive) < 0 ? remaining : timeToLive;
+            }
+            return Math.max(0, timeToLive.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Validation validation, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, validation, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Validation validation, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
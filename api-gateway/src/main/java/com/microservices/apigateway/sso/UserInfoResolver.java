@@ -0,0 +1,17 @@
+package com.microservices.apigateway.sso;
+
+import com.microservices.common.dto.UserInfo;
+import reactor.core.publisher.Mono;
+
+/**
+ * Turns an SSO token into the calling user. The implementation is chosen with {@code sso.mode}:
+ * {@code remote} asks the SSO service, {@code local} verifies signed tokens in the gateway.
+ */
+public interface UserInfoResolver {
+
+    /**
+     * Returns the user for the token, unauthenticated when the token is rejected.
+     * Fails when the token cannot be checked at all, e.g. because the SSO service is unreachable.
+     */
+    Mono<UserInfo> resolve(String token);
+}
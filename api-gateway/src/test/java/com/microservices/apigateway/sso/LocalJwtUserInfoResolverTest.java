@@ -0,0 +1,158 @@
+package com.microservices.apigateway.sso;
+
+import com.microservices.common.dto.UserInfo;
+import com.microservices.common.enums.UserRole;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalJwtUserInfoResolverTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private static RSAKey signingKey;
+    private static RSAKey rotatedKey;
+    private static RSAKey foreignKey;
+
+    // Stand-in for the SSO key server: serves whatever set is current and counts fetches
+    private final AtomicReference<JWKSet> servedKeys = new AtomicReference<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        rotatedKey = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        // Same key id as the published key, different key material
+        foreignKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+    }
+
+    @Test
+    void acceptsValidToken() throws JOSEException {
+        LocalJwtUserInfoResolver resolver = resolver(Duration.ofSeconds(30), signingKey);
+
+        UserInfo userInfo = resolve(resolver, sign(signingKey, claims("user-1", "USER", Instant.now().plusSeconds(300))));
+
+        assertThat(userInfo.isAuthenticated()).isTrue();
+        assertThat(userInfo.getUserId()).isEqualTo("user-1");
+        assertThat(userInfo.getUsername()).isEqualTo("alice");
+        assertThat(userInfo.getRole()).isEqualTo(UserRole.USER);
+        assertThat(userInfo.getExpiresAt()).isNotNull();
+    }
+
+    @Test
+    void rejectsTokenWithBadSignature() throws JOSEException {
+        LocalJwtUserInfoResolver resolver = resolver(Duration.ofSeconds(30), signingKey);
+
+        UserInfo userInfo = resolve(resolver, sign(foreignKey, claims("user-1", "USER", Instant.now().plusSeconds(300))));
+
+        assertThat(userInfo.isAuthenticated()).isFalse();
+    }
+
+    @Test
+    void rejectsExpiredToken() throws JOSEException {
+        LocalJwtUserInfoResolver resolver = resolver(Duration.ofSeconds(30), signingKey);
+
+        // Beyond the validator's default 60s clock skew
+        UserInfo userInfo = resolve(resolver, sign(signingKey, claims("user-1", "USER", Instant.now().minusSeconds(300))));
+
+        assertThat(userInfo.isAuthenticated()).isFalse();
+    }
+
+    @Test
+    void refreshesKeysForUnknownKeyId() throws JOSEException {
+        LocalJwtUserInfoResolver resolver = resolver(Duration.ZERO, signingKey);
+        assertThat(resolve(resolver, sign(signingKey, claims("user-1", "USER", Instant.now().plusSeconds(300))))
+            .isAuthenticated()).isTrue();
+        assertThat(fetches).hasValue(1);
+
+        servedKeys.set(new JWKSet(rotatedKey.toPublicJWK()));
+        UserInfo userInfo = resolve(resolver, sign(rotatedKey, claims("user-2", "ADMIN", Instant.now().plusSeconds(300))));
+
+        assertThat(userInfo.isAuthenticated()).isTrue();
+        assertThat(userInfo.getRole()).isEqualTo(UserRole.ADMIN);
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void doesNotRefreshKeysAgainWithinMinimumInterval() throws JOSEException {
+        LocalJwtUserInfoResolver resolver = resolver(Duration.ofMinutes(5), signingKey);
+        resolve(resolver, sign(signingKey, claims("user-1", "USER", Instant.now().plusSeconds(300))));
+
+        servedKeys.set(new JWKSet(rotatedKey.toPublicJWK()));
+        UserInfo userInfo = resolve(resolver, sign(rotatedKey, claims("user-2", "USER", Instant.now().plusSeconds(300))));
+
+        assertThat(userInfo.isAuthenticated()).isFalse();
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void rejectsTokenWithoutKnownRole() throws JOSEException {
+        LocalJwtUserInfoResolver resolver = resolver(Duration.ofSeconds(30), signingKey);
+
+        UserInfo missingRole = resolve(resolver, sign(signingKey, claims("user-1", null, Instant.now().plusSeconds(300))));
+        UserInfo unknownRole = resolve(resolver, sign(signingKey, claims("user-1", "SUPERUSER", Instant.now().plusSeconds(300))));
+
+        assertThat(missingRole.isAuthenticated()).isFalse();
+        assertThat(unknownRole.isAuthenticated()).isFalse();
+    }
+
+    private LocalJwtUserInfoResolver resolver(Duration minRefreshInterval, RSAKey publishedKey) {
+        servedKeys.set(new JWKSet(publishedKey.toPublicJWK()));
+        WebClient.Builder keyServer = WebClient.builder()
+            .exchangeFunction(request -> {
+                fetches.incrementAndGet();
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(servedKeys.get().toString())
+                    .build());
+            });
+        // init() is not called, so keys are only fetched on demand and the fetch count is deterministic
+        JwkSetProvider jwkSetProvider = new JwkSetProvider(keyServer, "http://sso.test/.well-known/jwks.json",
+            Duration.ofMinutes(5), minRefreshInterval);
+        return new LocalJwtUserInfoResolver(jwkSetProvider, new SimpleMeterRegistry(), "RS256", "",
+            "preferred_username", "role");
+    }
+
+    private static UserInfo resolve(LocalJwtUserInfoResolver resolver, String token) {
+        return resolver.resolve(token).block(TIMEOUT);
+    }
+
+    private static JWTClaimsSet claims(String subject, String role, Instant expiresAt) {
+        return new JWTClaimsSet.Builder()
+            .subject(subject)
+            .claim("preferred_username", "alice")
+            .claim("role", role)
+            .issueTime(Date.from(Instant.now().minusSeconds(600)))
+            .expirationTime(Date.from(expiresAt))
+            .build();
+    }
+
+    private static String sign(RSAKey key, JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,185 @@
+package com.microservices.benchmarks.grpc;
+
+import com.microservices.common.dto.OrderDTO;
+import com.microservices.common.enums.OrderStatus;
+import com.microservices.orderservice.grpc.GetOrderRequest;
+import com.microservices.orderservice.grpc.GetOrderResponse;
+import com.microservices.orderservice.grpc.Order;
+import com.microservices.orderservice.grpc.OrderGrpcService;
+import com.microservices.orderservice.grpc.OrderServiceGrpc;
+import com.microservices.orderservice.grpc.ReactiveGrpcCallExecutor;
+import com.microservices.orderservice.service.OrderService;
+import io.grpc.BindableService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * GetOrder with the handler that calls {@code block()} on the gRPC executor, as before the asynchronous
+ * handler, against the current {@link OrderGrpcService} on virtual threads. Both read from an
+ * {@link OrderService} whose lookup blocks for {@code lookupMillis} on boundedElastic, as a cache miss does.
+ * Each operation issues {@code concurrency} calls at once and waits for all of them; {@code calls} is the
+ * resulting GetOrder rate. Each parameter set runs in its own fork, so {@link PeakThreadsProfiler} shows the threads
+ * that handler needed.
+ * <pre>java -jar benchmarks/target/benchmarks.jar GrpcInFlightBenchmark -prof com.microservices.benchmarks.grpc.PeakThreadsProfiler</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class GrpcInFlightBenchmark {
+
+    private static final GetOrderRequest REQUEST = GetOrderRequest.newBuilder().setOrderId(1).build();
+
+    @Param({"blocking", "async"})
+    public String handler;
+
+    @Param({"50", "200", "1000", "2000"})
+    public int concurrency;
+
+    @Param("20")
+    public long lookupMillis;
+
+    private ExecutorService executor;
+    private Server server;
+    private ManagedChannel channel;
+    private OrderServiceGrpc.OrderServiceStub stub;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        OrderService orderService = new SlowLookupOrderService(lookupMillis);
+        ServerBuilder<?> builder = ServerBuilder.forPort(0);
+        if ("async".equals(handler)) {
+            // As GrpcServerConfig configures the server
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            builder.executor(executor)
+                .addService(new OrderGrpcService(orderService, new ReactiveGrpcCallExecutor(new SimpleMeterRegistry())));
+        } else {
+            builder.addService(blockingService(orderService));
+        }
+        server = builder.build().start();
+        channel = ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        stub = OrderServiceGrpc.newStub(channel);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void getOrder(Calls calls) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < concurrency; i++) {
+            stub.getOrder(REQUEST, new StreamObserver<>() {
+                @Override
+                public void onNext(GetOrderResponse response) {
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    failure.compareAndSet(null, error);
+                    done.countDown();
+                }
+
+                @Override
+                public void onCompleted() {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException("GetOrder failed", failure.get());
+        }
+        calls.calls += concurrency;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Calls {
+        public long calls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            calls = 0;
+        }
+    }
+
+    // OrderGrpcService.getOrder before it was made asynchronous: the executor thread waits in block()
+    private static BindableService blockingService(OrderService orderService) {
+        return new OrderServiceGrpc.OrderServiceImplBase() {
+            @Override
+            public void getOrder(GetOrderRequest request, StreamObserver<GetOrderResponse> responseObserver) {
+                OrderDTO orderDTO = orderService.getOrderById(request.getOrderId()).block();
+                responseObserver.onNext(GetOrderResponse.newBuilder()
+                    .setOrder(Order.newBuilder()
+                        .setId(orderDTO.getId())
+                        .setCustomerId(orderDTO.getCustomerId())
+                        .setAmount(orderDTO.getAmount().toString())
+                        .setStatus(com.microservices.orderservice.grpc.OrderStatus.PENDING)
+                        .build())
+                    .setSuccess(true)
+                    .build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    // Only getOrderById is called; it blocks on boundedElastic like the cached lookup on a miss
+    private static final class SlowLookupOrderService extends OrderService {
+
+        private final long lookupMillis;
+        private final OrderDTO order;
+
+        private SlowLookupOrderService(long lookupMillis) {
+            super(null, null, null, null, null, null, null);
+            this.lookupMillis = lookupMillis;
+            this.order = new OrderDTO(1L, "customer-1", new BigDecimal("10.00"), OrderStatus.PENDING);
+            order.setCreatedAt(LocalDateTime.now());
+            order.setUpdatedAt(LocalDateTime.now());
+        }
+
+        @Override
+        public Mono<OrderDTO> getOrderById(Long id) {
+            return Mono.fromCallable(() -> {
+                Thread.sleep(lookupMillis);
+                return order;
+            }).subscribeOn(Schedulers.boundedElastic());
+        }
+    }
+}
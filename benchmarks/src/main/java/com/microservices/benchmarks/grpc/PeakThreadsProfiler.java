@@ -0,0 +1,41 @@
+package com.microservices.benchmarks.grpc;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reports the most platform threads the benchmark JVM had alive during an iteration. Virtual threads are not
+ * counted, so this shows how many OS threads a handler holds while calls are in flight.
+ * <pre>java -jar benchmarks/target/benchmarks.jar GrpcInFlightBenchmark -prof com.microservices.benchmarks.grpc.PeakThreadsProfiler</pre>
+ */
+public class PeakThreadsProfiler implements InternalProfiler {
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Override
+    public String getDescription() {
+        return "Peak live platform threads per iteration";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        threads.resetPeakThreadCount();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        return List.of(new ScalarResult("threads.peak", threads.getPeakThreadCount(), "threads",
+            AggregationPolicy.MAX));
+    }
+}
@@ -0,0 +1,71 @@
+package com.microservices.benchmarks.id;
+
+import com.microservices.common.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment transaction id generation: the previous {@code currentTimeMillis + random} scheme against the
+ * Snowflake generator, both as raw ids and as the {@code TXN-} strings stored on payments. The
+ * {@code contended} variants share one generator between 8 threads, as concurrent inserts do.
+ * <pre>java -jar benchmarks/target/benchmarks.jar TransactionIdBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionIdBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+    @Benchmark
+    public String legacyTransactionId() {
+        return legacy();
+    }
+
+    @Benchmark
+    public String snowflakeTransactionId() {
+        return "TXN-" + generator.nextIdString();
+    }
+
+    @Benchmark
+    public long snowflakeId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacyTransactionIdContended() {
+        return legacy();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String snowflakeTransactionIdContended() {
+        return "TXN-" + generator.nextIdString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long snowflakeIdContended() {
+        return generator.nextId();
+    }
+
+    // Payment.generateTransactionId() before the Snowflake generator
+    private static String legacy() {
+        return "TXN-" + System.currentTimeMillis() + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+}
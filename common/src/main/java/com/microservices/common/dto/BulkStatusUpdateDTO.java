@@ -0,0 +1,24 @@
+package com.microservices.common.dto;
+
+import com.microservices.common.enums.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Moves every listed order to the same status in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateDTO {
+    @NotEmpty(message = "Order IDs are required")
+    private List<@NotNull Long> orderIds;
+
+    @NotNull(message = "Status is required")
+    private OrderStatus orderStatus;
+}
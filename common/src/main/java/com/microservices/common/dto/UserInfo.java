@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,5 +17,7 @@ public class UserInfo {
     private String username;
     private UserRole role;
     private boolean authenticated;
+    // When the token stops being valid; null if the SSO service does not report it
+    private Instant expiresAt;
 }
 
@@ -0,0 +1,29 @@
+package com.microservices.common.event;
+
+import com.microservices.common.dto.OrderDTO;
+import com.microservices.common.id.IdGenerators;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchCreatedEvent {
+    private List<OrderCreatedEvent> orders;
+    private String eventId;
+    private LocalDateTime eventTimestamp;
+
+    public static OrderBatchCreatedEvent fromOrderDTOs(List<OrderDTO> orderDTOs) {
+        return OrderBatchCreatedEvent.builder()
+            .orders(orderDTOs.stream().map(OrderCreatedEvent::fromOrderDTO).toList())
+            .eventId(IdGenerators.get().nextIdString())
+            .eventTimestamp(LocalDateTime.now())
+            .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.microservices.common.event;
 
 import com.microservices.common.dto.OrderDTO;
+import com.microservices.common.id.IdGenerators;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,7 +27,7 @@ public class OrderCreatedEvent {
             .customerId(orderDTO.getCustomerId())
             .amount(orderDTO.getAmount())
             .createdAt(orderDTO.getCreatedAt())
-            .eventId(java.util.UUID.randomUUID().toString())
+            .eventId(IdGenerators.get().nextIdString())
             .eventTimestamp(LocalDateTime.now())
             .build();
     }
@@ -0,0 +1,28 @@
+package com.microservices.common.event;
+
+import com.microservices.common.id.IdGenerators;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchProcessedEvent {
+    private List<PaymentProcessedEvent> payments;
+    private String eventId;
+    private LocalDateTime eventTimestamp;
+
+    public static PaymentBatchProcessedEvent of(List<PaymentProcessedEvent> payments) {
+        return PaymentBatchProcessedEvent.builder()
+            .payments(payments)
+            .eventId(IdGenerators.get().nextIdString())
+            .eventTimestamp(LocalDateTime.now())
+            .build();
+    }
+}
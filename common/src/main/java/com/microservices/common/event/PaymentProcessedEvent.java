@@ -1,6 +1,7 @@
 package com.microservices.common.event;
 
 import com.microservices.common.enums.PaymentStatus;
+import com.microservices.common.id.IdGenerators;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -29,7 +30,7 @@ public class PaymentProcessedEvent {
             .amount(amount)
             .status(status)
             .processedAt(LocalDateTime.now())
-            .eventId(java.util.UUID.randomUUID().toString())
+            .eventId(IdGenerators.get().nextIdString())
             .eventTimestamp(LocalDateTime.now())
             .build();
     }
@@ -0,0 +1,36 @@
+package com.microservices.common.event;
+
+import com.microservices.common.enums.PaymentStatus;
+import com.microservices.common.id.IdGenerators;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatusUpdatedEvent {
+    private Long paymentId;
+    private Long orderId;
+    private PaymentStatus oldStatus;
+    private PaymentStatus newStatus;
+    private LocalDateTime updatedAt;
+    private String eventId;
+    private LocalDateTime eventTimestamp;
+
+    public static PaymentStatusUpdatedEvent create(Long paymentId, Long orderId, PaymentStatus oldStatus, PaymentStatus newStatus) {
+        return PaymentStatusUpdatedEvent.builder()
+            .paymentId(paymentId)
+            .orderId(orderId)
+            .oldStatus(oldStatus)
+            .newStatus(newStatus)
+            .updatedAt(LocalDateTime.now())
+            .eventId(IdGenerators.get().nextIdString())
+            .eventTimestamp(LocalDateTime.now())
+            .build();
+    }
+}
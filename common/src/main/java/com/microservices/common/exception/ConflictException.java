@@ -0,0 +1,9 @@
+package com.microservices.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends BaseException {
+    public ConflictException(String errorCode, String message) {
+        super(errorCode, message, HttpStatus.CONFLICT);
+    }
+}
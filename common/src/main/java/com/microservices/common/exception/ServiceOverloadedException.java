@@ -0,0 +1,16 @@
+package com.microservices.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceOverloadedException extends BaseException {
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String errorCode, String message, long retryAfterSeconds) {
+        super(errorCode, message, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.microservices.common.id;
+
+/**
+ * Source of unique, roughly time-ordered 64-bit ids. Implementations must be safe to call from
+ * any thread.
+ */
+public interface IdGenerator {
+
+    long nextId();
+
+    /**
+     * Returns the next id as a compact string, e.g. for transaction and event ids.
+     */
+    default String nextIdString() {
+        return Long.toString(nextId(), Character.MAX_RADIX).toUpperCase();
+    }
+}
@@ -0,0 +1,49 @@
+package com.microservices.common.id;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+
+/**
+ * Process-wide {@link IdGenerator} for code that cannot have one injected, such as entity callbacks
+ * and event factories. The default is a {@link SnowflakeIdGenerator} whose node id comes from the
+ * {@code ids.node-id} system property or the {@code IDS_NODE_ID} environment variable. Without
+ * either, it is derived from the host name and process id, which can collide between instances;
+ * services replace it through {@link NodeIdConfiguration}, which requires an explicit node id in prod.
+ */
+public final class IdGenerators {
+
+    private static volatile IdGenerator generator = new SnowflakeIdGenerator(resolveNodeId());
+
+    private IdGenerators() {
+    }
+
+    public static IdGenerator get() {
+        return generator;
+    }
+
+    /**
+     * Replaces the process-wide generator, e.g. with one using a centrally assigned node id.
+     */
+    public static void set(IdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Id generator must not be null");
+        }
+        generator = idGenerator;
+    }
+
+    static int resolveNodeId() {
+        String configured = System.getProperty("ids.node-id", System.getenv("IDS_NODE_ID"));
+        if (configured != null && !configured.isBlank()) {
+            return Integer.parseInt(configured.trim());
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        // RuntimeMXBean name is "pid@host"
+        String identity = host + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        return (identity.hashCode() & Integer.MAX_VALUE) % (SnowflakeIdGenerator.MAX_NODE_ID + 1);
+    }
+}
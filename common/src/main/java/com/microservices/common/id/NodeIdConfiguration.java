@@ -0,0 +1,30 @@
+package com.microservices.common.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs the process-wide generator in {@link IdGenerators} with the node id from {@code ids.node-id},
+ * for services that {@code @Import} it. Profiles where a derived node id is not acceptable (prod) declare
+ * the property without a default, so the service refuses to start when it is missing.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class NodeIdConfiguration {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${ids.node-id:}") String nodeId) {
+        if (nodeId.isBlank()) {
+            // Two instances may derive the same node id and then produce duplicate ids
+            log.warn("ids.node-id is not set, using node id {} derived from host name and PID; "
+                + "assign distinct node ids when running several instances", IdGenerators.resolveNodeId());
+            return IdGenerators.get();
+        }
+        IdGenerator generator = new SnowflakeIdGenerator(Integer.parseInt(nodeId.trim()));
+        IdGenerators.set(generator);
+        log.info("Generating ids as node {}", nodeId.trim());
+        return generator;
+    }
+}
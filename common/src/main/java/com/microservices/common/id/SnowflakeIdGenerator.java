@@ -0,0 +1,58 @@
+package com.microservices.common.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style ids: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id and a
+ * 12-bit per-millisecond sequence. Ids from distinct nodes never collide, and ids from one node
+ * are strictly increasing.
+ * <p>
+ * The last timestamp and sequence live in a single {@link AtomicLong}, so generation is one CAS
+ * and allocates nothing. When the sequence is exhausted or the clock steps back, the generator
+ * borrows the next millisecond instead of blocking; it catches up with the wall clock once
+ * demand drops.
+ */
+public final class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    @Override
+    public long nextId() {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+            // A fresh millisecond restarts the sequence; otherwise the packed value simply increments,
+            // carrying into the timestamp when the sequence overflows
+            next = now > current ? now : current + 1;
+        } while (!state.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * Returns the creation time encoded in an id produced by this scheme.
+     */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+}
@@ -0,0 +1,113 @@
+package com.microservices.common.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams query results through a server-side JDBC cursor.
+ * Rows are fetched in chunks of {@code streaming.fetch-size} inside a read-only transaction and each
+ * entity is detached once emitted, so memory stays flat regardless of the result size. Rows are only
+ * pulled from the cursor when downstream requests them.
+ * <p>
+ * Services using it {@code @Import} it, as {@code common} is not component-scanned.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JpaCursorStreamer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${streaming.fetch-size:500}")
+    private int fetchSize;
+
+    public <T> Flux<T> stream(String jpql, Class<T> resultType) {
+        return stream(jpql, resultType, Map.of());
+    }
+
+    public <T> Flux<T> stream(String jpql, Class<T> resultType, Map<String, ?> parameters) {
+        return Flux.<T, Cursor<T>>generate(
+                () -> open(jpql, resultType, parameters),
+                (cursor, sink) -> {
+                    if (cursor.rows.hasNext()) {
+                        T row = cursor.rows.next();
+                        cursor.entityManager.detach(row);
+                        sink.next(row);
+                    } else {
+                        sink.complete();
+                    }
+                    return cursor;
+                },
+                Cursor::close
+            )
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private <T> Cursor<T> open(String jpql, Class<T> resultType, Map<String, ?> parameters) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction transaction = entityManager.getTransaction();
+        try {
+            // The PostgreSQL driver only honours the fetch size when auto-commit is off
+            transaction.begin();
+            Session session = entityManager.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            session.doWork(connection -> connection.setReadOnly(true));
+
+            TypedQuery<T> query = entityManager.createQuery(jpql, resultType)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false);
+            parameters.forEach(query::setParameter);
+
+            Stream<T> results = query.getResultStream();
+            return new Cursor<>(entityManager, transaction, results);
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            entityManager.close();
+            throw e;
+        }
+    }
+
+    private static final class Cursor<T> {
+        private final EntityManager entityManager;
+        private final EntityTransaction transaction;
+        private final Stream<T> results;
+        private final Iterator<T> rows;
+
+        private Cursor(EntityManager entityManager, EntityTransaction transaction, Stream<T> results) {
+            this.entityManager = entityManager;
+            this.transaction = transaction;
+            this.results = results;
+            this.rows = results.iterator();
+        }
+
+        private void close() {
+            try {
+                results.close();
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to release streaming cursor", e);
+            } finally {
+                entityManager.close();
+            }
+        }
+    }
+}
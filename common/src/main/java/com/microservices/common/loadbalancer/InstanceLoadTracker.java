@@ -0,0 +1,120 @@
+package com.microservices.common.loadbalancer;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load observed per downstream instance ({@code host:port}): requests in flight and a peak-sensitive
+ * EWMA of response time. A slower response replaces the average at once, faster ones pull it down
+ * gradually, and it decays toward zero while an instance is idle so that it gets probed again.
+ * Failures count as at least {@code failurePenalty}, so an instance that fails fast does not look fast.
+ * <p>
+ * Callers report each request through {@link #start(String, int)} and the returned {@link Call}.
+ */
+public class InstanceLoadTracker {
+
+    // Cost of an instance with requests in flight but no completed ones yet
+    private static final double UNMEASURED_PENALTY = Duration.ofSeconds(1).toNanos();
+
+    private final ConcurrentMap<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+
+    public InstanceLoadTracker(Duration decay, Duration failurePenalty) {
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    public Call start(String host, int port) {
+        InstanceLoad load = loads.computeIfAbsent(key(host, port), key -> new InstanceLoad());
+        load.pending.incrementAndGet();
+        return new Call(load, System.nanoTime());
+    }
+
+    /**
+     * Expected cost of sending one more request to the instance; lower is better.
+     */
+    public double cost(String host, int port) {
+        InstanceLoad load = loads.get(key(host, port));
+        return load == null ? 0 : load.cost(System.nanoTime());
+    }
+
+    static String key(String host, int port) {
+        return host + ":" + port;
+    }
+
+    /**
+     * One request to an instance. Only the first completion call counts, so callers can report from
+     * several signal handlers.
+     */
+    public final class Call {
+
+        private final InstanceLoad load;
+        private final long startNanos;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Call(InstanceLoad load, long startNanos) {
+            this.load = load;
+            this.startNanos = startNanos;
+        }
+
+        public void succeeded() {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            long now = System.nanoTime();
+            load.pending.decrementAndGet();
+            load.observe(now - startNanos, now);
+        }
+
+        public void failed() {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            long now = System.nanoTime();
+            load.pending.decrementAndGet();
+            load.observe(Math.max(now - startNanos, failurePenaltyNanos), now);
+        }
+
+        // Abandoned by the caller: the instance is no longer busy with it, but nothing was learned
+        public void cancelled() {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            load.pending.decrementAndGet();
+        }
+    }
+
+    private final class InstanceLoad {
+
+        private final AtomicInteger pending = new AtomicInteger();
+        // Guarded by this
+        private double ewma;
+        private long lastUpdateNanos = System.nanoTime();
+
+        synchronized void observe(double rttNanos, long now) {
+            if (rttNanos > ewma) {
+                ewma = rttNanos;
+            } else {
+                double weight = Math.exp(-(now - lastUpdateNanos) / decayNanos);
+                ewma = ewma * weight + rttNanos * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+
+        double cost(long now) {
+            double decayed;
+            synchronized (this) {
+                decayed = ewma * Math.exp(-Math.max(0, now - lastUpdateNanos) / decayNanos);
+            }
+            int inFlight = pending.get();
+            if (decayed == 0 && inFlight > 0) {
+                return UNMEASURED_PENALTY + inFlight;
+            }
+            return decayed * (inFlight + 1);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.microservices.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two instances at random and sends the request to the one with the lower
+ * {@link InstanceLoadTracker#cost cost}, so traffic drifts away from slow or busy instances without
+ * every caller piling onto the single fastest one. Instances listed in the request's
+ * {@link TriedInstances} are skipped while others remain.
+ */
+public class PowerOfTwoChoicesLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceLoadTracker loadTracker;
+
+    public PowerOfTwoChoicesLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                         InstanceLoadTracker loadTracker) {
+        this.supplierProvider = supplierProvider;
+        this.loadTracker = loadTracker;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return Mono.deferContextual(context -> supplier.get(request).next()
+            .map(instances -> {
+                TriedInstances tried = context.getOrDefault(TriedInstances.CONTEXT_KEY, null);
+                Response<ServiceInstance> response = choose(instances, tried);
+                if (response.hasServer()) {
+                    if (tried != null) {
+                        tried.add(response.getServer().getHost(), response.getServer().getPort());
+                    }
+                    if (supplier instanceof SelectedInstanceCallback callback) {
+                        callback.selectedServiceInstance(response.getServer());
+                    }
+                }
+                return response;
+            }));
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, TriedInstances tried) {
+        List<ServiceInstance> candidates = instances;
+        if (tried != null && instances.size() > 1) {
+            List<ServiceInstance> untried = new ArrayList<>(instances.size());
+            for (ServiceInstance instance : instances) {
+                if (!tried.contains(instance.getHost(), instance.getPort())) {
+                    untried.add(instance);
+                }
+            }
+            if (!untried.isEmpty()) {
+                candidates = untried;
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(loadTracker.cost(a.getHost(), a.getPort()) <= loadTracker.cost(b.getHost(), b.getPort()) ? a : b);
+    }
+}
@@ -0,0 +1,23 @@
+package com.microservices.common.loadbalancer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Instances already chosen for one logical request, shared through the Reactor context so that a
+ * hedged or retried attempt is sent to a different instance when one is available.
+ */
+public final class TriedInstances {
+
+    public static final String CONTEXT_KEY = TriedInstances.class.getName();
+
+    private final Set<String> instances = ConcurrentHashMap.newKeySet();
+
+    public boolean contains(String host, int port) {
+        return instances.contains(InstanceLoadTracker.key(host, port));
+    }
+
+    public void add(String host, int port) {
+        instances.add(InstanceLoadTracker.key(host, port));
+    }
+}
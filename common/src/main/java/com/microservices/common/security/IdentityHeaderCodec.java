@@ -0,0 +1,102 @@
+package com.microservices.common.security;
+
+import com.microservices.common.enums.UserRole;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Encodes a {@link UserPrincipal} as a compact HMAC-SHA256 signed header value that the gateway sets and
+ * services verify with a shared secret:
+ * <pre>v1.&lt;userId&gt;.&lt;username&gt;.&lt;ROLE&gt;.&lt;expiresAtEpochSecond&gt;.&lt;signature&gt;</pre>
+ * where user id, username and signature are unpadded base64url. Instances are thread-safe.
+ */
+public final class IdentityHeaderCodec {
+
+    public static final String HEADER = "X-User-Identity";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac prototype;
+
+    public IdentityHeaderCodec(String secret) {
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("Identity header secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    public String encode(UserPrincipal principal) {
+        StringBuilder value = new StringBuilder(96)
+            .append(VERSION).append('.')
+            .append(base64(principal.userId())).append('.')
+            .append(base64(principal.username())).append('.')
+            .append(principal.role().name()).append('.')
+            .append(principal.expiresAtEpochSecond());
+        byte[] signature = sign(value.toString().getBytes(StandardCharsets.US_ASCII));
+        return value.append('.').append(ENCODER.encodeToString(signature)).toString();
+    }
+
+    /**
+     * Returns the principal in a well-formed, correctly signed value, or null otherwise. Expiry is left to the
+     * caller so that decoded principals can be cached and re-checked.
+     */
+    public UserPrincipal decode(String value) {
+        if (value == null || !value.startsWith(VERSION + ".")) {
+            return null;
+        }
+        int userIdEnd = value.indexOf('.', VERSION.length() + 1);
+        int usernameEnd = userIdEnd < 0 ? -1 : value.indexOf('.', userIdEnd + 1);
+        int roleEnd = usernameEnd < 0 ? -1 : value.indexOf('.', usernameEnd + 1);
+        int expiresEnd = roleEnd < 0 ? -1 : value.indexOf('.', roleEnd + 1);
+        if (expiresEnd < 0 || value.indexOf('.', expiresEnd + 1) >= 0) {
+            return null;
+        }
+        try {
+            byte[] expected = sign(value.substring(0, expiresEnd).getBytes(StandardCharsets.US_ASCII));
+            byte[] actual = DECODER.decode(value.substring(expiresEnd + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            return new UserPrincipal(
+                text(value.substring(VERSION.length() + 1, userIdEnd)),
+                text(value.substring(userIdEnd + 1, usernameEnd)),
+                UserRole.valueOf(value.substring(usernameEnd + 1, roleEnd)),
+                Long.parseLong(value, roleEnd + 1, expiresEnd, 10));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] data) {
+        Mac mac;
+        try {
+            // Mac is not thread-safe; cloning the initialized prototype skips the provider lookup and key setup
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC provider does not support cloning", e);
+        }
+        return mac.doFinal(data);
+    }
+
+    private static String base64(String text) {
+        return text == null ? "" : ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(String base64) {
+        return base64.isEmpty() ? null : new String(DECODER.decode(base64), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,81 @@
+package com.microservices.common.security;
+
+import com.microservices.common.annotation.RequireRole;
+import com.microservices.common.enums.UserRole;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces {@link RequireRole} on controller methods against the principal {@link RoleAuthorizationFilter}
+ * resolved for the request: no principal is 401, a role outside the allowed set is 403.
+ */
+@Aspect
+@Component
+@Slf4j
+public class RoleAuthorizationAspect implements ApplicationListener<ContextRefreshedEvent> {
+
+    // Allowed roles per handler method, resolved once instead of reading the annotation per call
+    private final Map<Method, Set<UserRole>> allowedRoles = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()
+            .forEach(mapping -> mapping.getHandlerMethods().values()
+                .forEach(handler -> allowedRoles.computeIfAbsent(handler.getMethod(), RoleAuthorizationAspect::resolveRoles)));
+        log.debug("Resolved required roles for {} handler methods", allowedRoles.size());
+    }
+
+    @Before("@annotation(com.microservices.common.annotation.RequireRole)")
+    public void checkRole(JoinPoint joinPoint) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Request context not available");
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        UserPrincipal principal = (UserPrincipal) request.getAttribute(UserPrincipal.REQUEST_ATTRIBUTE);
+
+        if (principal == null) {
+            log.warn("Unauthenticated access attempt to {}", joinPoint.getSignature().toShortString());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
+        }
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Set<UserRole> requiredRoles = allowedRoles.computeIfAbsent(method, RoleAuthorizationAspect::resolveRoles);
+
+        if (!requiredRoles.contains(principal.role())) {
+            log.warn("Access denied for user {} with role {} to {}",
+                principal.userId(), principal.role(), joinPoint.getSignature().toShortString());
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                "Insufficient permissions. Required role: " + requiredRoles);
+        }
+    }
+
+    private static Set<UserRole> resolveRoles(Method method) {
+        RequireRole requireRole = AnnotatedElementUtils.findMergedAnnotation(method, RequireRole.class);
+        if (requireRole == null || requireRole.value().length == 0) {
+            return EnumSet.noneOf(UserRole.class);
+        }
+        return EnumSet.copyOf(Arrays.asList(requireRole.value()));
+    }
+}
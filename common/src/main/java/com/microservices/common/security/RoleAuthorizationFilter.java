@@ -0,0 +1,69 @@
+package com.microservices.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Resolves the caller from the gateway-signed identity header. Verified header values are cached, so a
+ * repeat caller costs a map lookup and an expiry check rather than an HMAC.
+ * <p>
+ * Services using it {@code @Import} it together with {@link RoleAuthorizationAspect}, as {@code common} is not
+ * component-scanned. It needs an {@link IdentityHeaderCodec} bean.
+ */
+@Component
+@Slf4j
+public class RoleAuthorizationFilter extends OncePerRequestFilter {
+
+    private final boolean validateEnabled;
+    private final IdentityHeaderCodec identityHeaderCodec;
+    private final Cache<String, UserPrincipal> principals;
+
+    public RoleAuthorizationFilter(@Value("${sso.validate.enabled:true}") boolean validateEnabled,
+                                   IdentityHeaderCodec identityHeaderCodec,
+                                   @Value("${sso.identity.cache-size:10000}") long cacheSize) {
+        this.validateEnabled = validateEnabled;
+        this.identityHeaderCodec = identityHeaderCodec;
+        this.principals = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!validateEnabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String identity = request.getHeader(IdentityHeaderCodec.HEADER);
+        if (identity != null && !identity.isEmpty()) {
+            UserPrincipal principal = principals.getIfPresent(identity);
+            if (principal == null) {
+                // Only verified values are cached, so forged headers cannot fill the cache
+                principal = identityHeaderCodec.decode(identity);
+                if (principal != null) {
+                    principals.put(identity, principal);
+                } else {
+                    log.warn("Rejected identity header with an invalid signature");
+                }
+            }
+            if (principal != null && !principal.isExpired(System.currentTimeMillis() / 1000)) {
+                request.setAttribute(UserPrincipal.REQUEST_ATTRIBUTE, principal);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,16 @@
+package com.microservices.common.security;
+
+import com.microservices.common.enums.UserRole;
+
+/**
+ * Verified caller identity as carried between services in the {@link IdentityHeaderCodec#HEADER} header.
+ */
+public record UserPrincipal(String userId, String username, UserRole role, long expiresAtEpochSecond) {
+
+    /** Request attribute under which services store the caller's principal. */
+    public static final String REQUEST_ATTRIBUTE = UserPrincipal.class.getName();
+
+    public boolean isExpired(long nowEpochSecond) {
+        return nowEpochSecond >= expiresAtEpochSecond;
+    }
+}
@@ -0,0 +1,89 @@
+package com.microservices.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS_PER_NODE = 4;
+    private static final int IDS_PER_THREAD = 1_000_000;
+
+    @Test
+    void idsAreUniqueAcrossThreadsAndNodesAndIncreasingPerNode() throws Exception {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2);
+
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS_PER_NODE; i++) {
+            tasks.add(() -> generate(first));
+            tasks.add(() -> generate(second));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        List<long[]> batches = new ArrayList<>();
+        try {
+            for (Future<long[]> future : executor.invokeAll(tasks)) {
+                batches.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long[] all = new long[tasks.size() * IDS_PER_THREAD];
+        int offset = 0;
+        for (long[] batch : batches) {
+            // Each thread sees its node's ids in strictly increasing order
+            for (int i = 1; i < batch.length; i++) {
+                assertThat(batch[i]).isGreaterThan(batch[i - 1]);
+            }
+            System.arraycopy(batch, 0, all, offset, batch.length);
+            offset += batch.length;
+        }
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                throw new AssertionError("Duplicate id " + all[i]);
+            }
+        }
+    }
+
+    @Test
+    void encodesNodeIdAndCreationTime() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID);
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        long id = generator.nextId();
+
+        assertThat(id).isPositive();
+        assertThat((id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID)
+            .isEqualTo(SnowflakeIdGenerator.MAX_NODE_ID);
+        assertThat(SnowflakeIdGenerator.timestampOf(id))
+            .isBetween(before, Instant.now());
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long[] generate(IdGenerator generator) {
+        long[] ids = new long[IDS_PER_THREAD];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generator.nextId();
+        }
+        return ids;
+    }
+}
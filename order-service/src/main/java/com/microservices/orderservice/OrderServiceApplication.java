@@ -1,9 +1,17 @@
 package com.microservices.orderservice;
 
+import com.microservices.common.id.NodeIdConfiguration;
+import com.microservices.common.jpa.JpaCursorStreamer;
+import com.microservices.common.security.RoleAuthorizationAspect;
+import com.microservices.common.security.RoleAuthorizationFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@Import({NodeIdConfiguration.class, JpaCursorStreamer.class, RoleAuthorizationFilter.class, RoleAuthorizationAspect.class})
+@EnableScheduling
 public class OrderServiceApplication {
     public static void main(String[] args) {
         System.setProperty("spring.threads.virtual.enabled", "true");
@@ -0,0 +1,147 @@
+package com.microservices.orderservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Read-through cache with a bounded in-process tier (L1) in front of a shared remote tier (L2).
+ * Reads try L1, then L2 (promoting hits into L1), then the loader. Writes and evictions go to both tiers.
+ * Failures of the remote tier are logged and treated as misses so they never fail a read.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final org.springframework.cache.Cache remote;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteErrors;
+
+    public TwoLevelCache(String name, Cache<Object, Object> local, org.springframework.cache.Cache remote,
+                         MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.remoteHits = remoteCounter(meterRegistry, "hit");
+        this.remoteMisses = remoteCounter(meterRegistry, "miss");
+        this.remoteErrors = remoteCounter(meterRegistry, "error");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = remoteGet(key);
+        if (value != null) {
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Loads through both tiers. Concurrent loads of the same key within this instance share one
+     * loader call. Runtime exceptions thrown by the loader propagate unchanged.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) fromStoreValue(local.get(key, k -> {
+            Object value = remoteGet(k);
+            if (value == null) {
+                value = toStoreValue(load(k, valueLoader));
+                remotePut(k, value);
+            }
+            return value;
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        local.put(key, storeValue);
+        remotePut(key, storeValue);
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        try {
+            remote.evict(key);
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("Failed to evict key {} from remote cache {}", key, name, e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        try {
+            remote.clear();
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("Failed to clear remote cache {}", name, e);
+        }
+    }
+
+    private Object remoteGet(Object key) {
+        try {
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                remoteHits.increment();
+                return wrapper.get();
+            }
+            remoteMisses.increment();
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("Remote cache {} unavailable for key {}, falling back to loader", name, key, e);
+        }
+        return null;
+    }
+
+    private void remotePut(Object key, Object value) {
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.warn("Failed to write key {} to remote cache {}", key, name, e);
+        }
+    }
+
+    private static <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private Counter remoteCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.remote.requests")
+            .description("Lookups against the shared remote cache tier")
+            .tag("cache", name)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
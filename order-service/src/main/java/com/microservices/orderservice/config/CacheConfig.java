@@ -0,0 +1,68 @@
+package com.microservices.orderservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.common.dto.OrderDTO;
+import com.microservices.orderservice.cache.TwoLevelCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String ORDERS_CACHE = "orders";
+
+    @Value("${orders.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${orders.cache.local.time-to-live:30s}")
+    private Duration localTimeToLive;
+
+    // Short, so a stale order written back by a read that raced an update does not outlive the broadcast re-evict by long
+    @Value("${orders.cache.remote.time-to-live:60s}")
+    private Duration remoteTimeToLive;
+
+    @Bean
+    public TwoLevelCache ordersCache(RedisConnectionFactory redisConnectionFactory,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        Cache<Object, Object> local = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localTimeToLive)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, ORDERS_CACHE);
+
+        RedisCacheConfiguration remoteConfig = RedisCacheConfiguration.defaultCacheConfig()
+            .entryTtl(remoteTimeToLive)
+            .disableCachingNullValues()
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                new Jackson2JsonRedisSerializer<>(objectMapper, OrderDTO.class)));
+        RedisCacheManager remoteManager = RedisCacheManager.builder(redisConnectionFactory)
+            .cacheDefaults(remoteConfig)
+            .build();
+
+        return new TwoLevelCache(ORDERS_CACHE, local, remoteManager.getCache(ORDERS_CACHE), meterRegistry);
+    }
+
+    @Bean
+    public CacheManager cacheManager(TwoLevelCache ordersCache) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(ordersCache));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,22 @@
+package com.microservices.orderservice.config;
+
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class GrpcServerConfig {
+
+    /**
+     * Runs gRPC call handlers, interceptors and message (de)serialization on virtual threads
+     * instead of the default cached platform-thread pool.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "orders.grpc.virtual-threads.enabled", havingValue = "true", matchIfMissing = true)
+    public GrpcServerConfigurer virtualThreadGrpcServerConfigurer() {
+        return serverBuilder -> serverBuilder.executor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
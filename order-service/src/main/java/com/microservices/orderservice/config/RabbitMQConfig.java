@@ -17,10 +17,12 @@ public class RabbitMQConfig {
     // Queue names
     public static final String ORDER_CREATED_QUEUE = "order.created.queue";
     public static final String ORDER_STATUS_UPDATED_QUEUE = "order.status.updated.queue";
+    public static final String ORDER_BATCH_CREATED_QUEUE = "order.batch.created.queue";
 
     // Routing keys
     public static final String ORDER_CREATED_ROUTING_KEY = "order.created";
     public static final String ORDER_STATUS_UPDATED_ROUTING_KEY = "order.status.updated";
+    public static final String ORDER_BATCH_CREATED_ROUTING_KEY = "order.batch.created";
 
     @Bean
     public MessageConverter messageConverter() {
@@ -50,6 +52,11 @@ public class RabbitMQConfig {
         return QueueBuilder.durable(ORDER_STATUS_UPDATED_QUEUE).build();
     }
 
+    @Bean
+    public Queue orderBatchCreatedQueue() {
+        return QueueBuilder.durable(ORDER_BATCH_CREATED_QUEUE).build();
+    }
+
     @Bean
     public Binding orderCreatedBinding() {
         return BindingBuilder
@@ -65,5 +72,27 @@ public class RabbitMQConfig {
             .to(orderExchange())
             .with(ORDER_STATUS_UPDATED_ROUTING_KEY);
     }
+
+    @Bean
+    public Binding orderBatchCreatedBinding() {
+        return BindingBuilder
+            .bind(orderBatchCreatedQueue())
+            .to(orderExchange())
+            .with(ORDER_BATCH_CREATED_ROUTING_KEY);
+    }
+
+    // Per-instance queue so every order-service replica sees every status change
+    @Bean
+    public Queue orderStatusBroadcastQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding orderStatusBroadcastBinding() {
+        return BindingBuilder
+            .bind(orderStatusBroadcastQueue())
+            .to(orderExchange())
+            .with(ORDER_STATUS_UPDATED_ROUTING_KEY);
+    }
 }
 
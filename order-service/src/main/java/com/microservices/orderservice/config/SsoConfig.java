@@ -1,6 +1,8 @@
 package com.microservices.orderservice.config;
 
+import com.microservices.common.security.IdentityHeaderCodec;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
@@ -12,6 +14,12 @@ public class SsoConfig {
     @Value("${sso.validate.enabled:true}")
     private boolean validateEnabled;
 
+    // Shared with the gateway, which signs the X-User-Identity header
+    @Bean
+    public IdentityHeaderCodec identityHeaderCodec(@Value("${sso.identity.secret}") String secret) {
+        return new IdentityHeaderCodec(secret);
+    }
+
     public String getTokenHeader() {
         return tokenHeader;
     }
@@ -4,12 +4,14 @@ import com.microservices.common.dto.ErrorResponse;
 import com.microservices.common.exception.BaseException;
 import com.microservices.common.exception.BusinessException;
 import com.microservices.common.exception.ResourceNotFoundException;
+import com.microservices.common.exception.ServiceOverloadedException;
 import com.microservices.common.exception.ValidationException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -41,6 +43,22 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, request);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(
+            ServiceOverloadedException ex, HttpServletRequest request) {
+        log.warn("Service overloaded: {}", ex.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+            .errorCode(ex.getErrorCode())
+            .message(ex.getMessage())
+            .timestamp(LocalDateTime.now())
+            .correlationId(MDC.get("correlationId"))
+            .path(request.getRequestURI())
+            .build();
+        return ResponseEntity.status(ex.getHttpStatus())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(
             ValidationException ex, HttpServletRequest request) {
@@ -1,12 +1,17 @@
 package com.microservices.orderservice.controller;
 
 import com.microservices.common.annotation.RequireRole;
+import com.microservices.common.dto.BulkStatusUpdateDTO;
+import com.microservices.common.dto.CursorPage;
 import com.microservices.common.dto.OrderDTO;
 import com.microservices.common.dto.StatusUpdateDTO;
 import com.microservices.common.enums.OrderStatus;
 import com.microservices.common.enums.UserRole;
 import com.microservices.orderservice.service.OrderService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -20,7 +25,9 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @RestController
@@ -54,11 +61,21 @@ public class OrderController {
             .map(ResponseEntity::ok);
     }
 
+    @GetMapping("/cursor")
+    @RequireRole({UserRole.USER, UserRole.ADMIN})
+    public Mono<ResponseEntity<CursorPage<OrderDTO>>> getOrdersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "Page size must be at least 1")
+            @Max(value = 100, message = "Page size must not exceed 100") int size) {
+        return orderService.getOrdersPage(cursor, size)
+            .map(ResponseEntity::ok);
+    }
+
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @RequireRole({UserRole.ADMIN})
     public Flux<OrderDTO> getAllOrdersStreaming() {
-        return orderService.getAllOrdersStreaming()
-            .delayElements(java.time.Duration.ofMillis(100));
+        return orderService.getAllOrdersStreaming();
     }
 
     @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_NDJSON_VALUE)
@@ -77,6 +94,24 @@ public class OrderController {
         return orderService.createOrdersBatch(orderDTOs);
     }
 
+    @PostMapping("/lookup")
+    @RequireRole({UserRole.USER, UserRole.ADMIN})
+    public Mono<ResponseEntity<List<OrderDTO>>> getOrdersByIds(
+            @RequestBody @NotEmpty(message = "Order IDs are required") List<Long> orderIds) {
+        return orderService.getOrdersByIds(orderIds)
+            .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/status")
+    @RequireRole({UserRole.ADMIN})
+    public Mono<ResponseEntity<List<OrderDTO>>> updateOrderStatuses(
+            @Valid @RequestBody BulkStatusUpdateDTO statusUpdate) {
+        Map<Long, OrderStatus> transitions = new LinkedHashMap<>();
+        statusUpdate.getOrderIds().forEach(orderId -> transitions.put(orderId, statusUpdate.getOrderStatus()));
+        return orderService.updateOrderStatuses(transitions)
+            .map(ResponseEntity::ok);
+    }
+
     @PutMapping("/{id}/status")
     @RequireRole({UserRole.ADMIN})
     public Mono<ResponseEntity<OrderDTO>> updateOrderStatus(
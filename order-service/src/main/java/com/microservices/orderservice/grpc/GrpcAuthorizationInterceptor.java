@@ -0,0 +1,75 @@
+package com.microservices.orderservice.grpc;
+
+import com.microservices.common.enums.UserRole;
+import com.microservices.common.security.IdentityHeaderCodec;
+import com.microservices.common.security.UserPrincipal;
+import com.microservices.orderservice.config.SsoConfig;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Requires the gateway-signed identity in the {@code x-user-identity} metadata entry and checks its role
+ * against the same roles the HTTP endpoints demand through {@code @RequireRole}. OrderService methods
+ * without an entry here are refused, so a new RPC is closed until it is given roles.
+ */
+@Slf4j
+@GrpcGlobalServerInterceptor
+@RequiredArgsConstructor
+public class GrpcAuthorizationInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> IDENTITY_KEY =
+        Metadata.Key.of(IdentityHeaderCodec.HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final Set<UserRole> ANY_ROLE = EnumSet.of(UserRole.USER, UserRole.ADMIN);
+    private static final Set<UserRole> ADMIN_ONLY = EnumSet.of(UserRole.ADMIN);
+
+    private static final Map<String, Set<UserRole>> ALLOWED_ROLES = Map.of(
+        OrderServiceGrpc.getGetOrderMethod().getFullMethodName(), ANY_ROLE,
+        OrderServiceGrpc.getGetOrdersMethod().getFullMethodName(), ANY_ROLE,
+        OrderServiceGrpc.getStreamOrdersMethod().getFullMethodName(), ADMIN_ONLY,
+        OrderServiceGrpc.getUpdateOrderStatusMethod().getFullMethodName(), ADMIN_ONLY,
+        OrderServiceGrpc.getUpdateOrderStatusesMethod().getFullMethodName(), ADMIN_ONLY
+    );
+
+    private final SsoConfig ssoConfig;
+    private final IdentityHeaderCodec identityHeaderCodec;
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                      ServerCallHandler<Q, R> next) {
+        String method = call.getMethodDescriptor().getFullMethodName();
+        if (!ssoConfig.isValidateEnabled()
+                || !OrderServiceGrpc.SERVICE_NAME.equals(call.getMethodDescriptor().getServiceName())) {
+            return next.startCall(call, headers);
+        }
+
+        UserPrincipal principal = identityHeaderCodec.decode(headers.get(IDENTITY_KEY));
+        if (principal == null || principal.isExpired(System.currentTimeMillis() / 1000)) {
+            log.warn("Unauthenticated gRPC call to {}", method);
+            return reject(call, Status.UNAUTHENTICATED.withDescription("User not authenticated"));
+        }
+
+        Set<UserRole> allowedRoles = ALLOWED_ROLES.getOrDefault(method, Set.of());
+        if (!allowedRoles.contains(principal.role())) {
+            log.warn("Access denied for user {} with role {} to {}", principal.userId(), principal.role(), method);
+            return reject(call, Status.PERMISSION_DENIED.withDescription(
+                "Insufficient permissions. Required role: " + allowedRoles));
+        }
+        return next.startCall(call, headers);
+    }
+
+    private static <Q, R> ServerCall.Listener<Q> reject(ServerCall<Q, R> call, Status status) {
+        call.close(status, new Metadata());
+        return new ServerCall.Listener<>() { };
+    }
+}
@@ -1,16 +1,25 @@
 package com.microservices.orderservice.grpc;
 
 import com.microservices.common.dto.OrderDTO;
+import com.microservices.common.exception.BusinessException;
 import com.microservices.common.exception.ResourceNotFoundException;
 import com.microservices.orderservice.service.OrderService;
-import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.ZoneId;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @GrpcService
@@ -19,83 +28,143 @@ import java.time.ZoneId;
 public class OrderGrpcService extends OrderServiceGrpc.OrderServiceImplBase {
 
     private final OrderService orderService;
+    private final ReactiveGrpcCallExecutor callExecutor;
+
+    @Value("${orders.batch.max-ids:1000}")
+    private int maxBatchIds;
 
     @Override
     public void getOrder(GetOrderRequest request, StreamObserver<GetOrderResponse> responseObserver) {
-        try {
-            log.debug("gRPC GetOrder request received for orderId: {}", request.getOrderId());
-            
-            OrderDTO orderDTO = orderService.getOrderById(request.getOrderId())
-                .block(); // Convert Mono to blocking call for gRPC
-            
-            if (orderDTO == null) {
-                GetOrderResponse response = GetOrderResponse.newBuilder()
-                    .setSuccess(false)
-                    .setErrorMessage("Order not found")
-                    .build();
-                responseObserver.onNext(response);
-                responseObserver.onCompleted();
-                return;
-            }
+        log.debug("gRPC GetOrder request received for orderId: {}", request.getOrderId());
 
-            Order grpcOrder = convertToGrpcOrder(orderDTO);
-            GetOrderResponse response = GetOrderResponse.newBuilder()
-                .setOrder(grpcOrder)
+        Mono<GetOrderResponse> response = orderService.getOrderById(request.getOrderId())
+            .map(orderDTO -> GetOrderResponse.newBuilder()
+                .setOrder(convertToGrpcOrder(orderDTO))
                 .setSuccess(true)
-                .build();
-            
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-            log.debug("gRPC GetOrder response sent for orderId: {}", request.getOrderId());
-        } catch (ResourceNotFoundException e) {
-            log.warn("Order not found: {}", request.getOrderId());
-            GetOrderResponse response = GetOrderResponse.newBuilder()
-                .setSuccess(false)
-                .setErrorMessage("Order not found: " + e.getMessage())
-                .build();
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-        } catch (Exception e) {
-            log.error("Error in gRPC GetOrder for orderId: {}", request.getOrderId(), e);
-            responseObserver.onError(Status.INTERNAL
-                .withDescription("Internal server error: " + e.getMessage())
-                .asRuntimeException());
-        }
+                .build())
+            .onErrorResume(ResourceNotFoundException.class, e -> {
+                log.warn("Order not found: {}", request.getOrderId());
+                return Mono.just(GetOrderResponse.newBuilder()
+                    .setSuccess(false)
+                    .setErrorMessage("Order not found: " + e.getMessage())
+                    .build());
+            })
+            .doOnSuccess(sent -> log.debug("gRPC GetOrder response sent for orderId: {}", request.getOrderId()))
+            .doOnError(e -> log.error("Error in gRPC GetOrder for orderId: {}", request.getOrderId(), e));
+
+        callExecutor.execute(response, responseObserver);
     }
 
     @Override
     public void updateOrderStatus(UpdateOrderStatusRequest request, StreamObserver<UpdateOrderStatusResponse> responseObserver) {
-        try {
-            log.debug("gRPC UpdateOrderStatus request received for orderId: {}, status: {}", 
-                request.getOrderId(), request.getStatus());
-            
-            com.microservices.common.enums.OrderStatus orderStatus = convertToOrderStatus(request.getStatus());
-            OrderDTO orderDTO = orderService.updateOrderStatus(request.getOrderId(), orderStatus)
-                .block(); // Convert Mono to blocking call for gRPC
-
-            Order grpcOrder = convertToGrpcOrder(orderDTO);
-            UpdateOrderStatusResponse response = UpdateOrderStatusResponse.newBuilder()
-                .setOrder(grpcOrder)
+        log.debug("gRPC UpdateOrderStatus request received for orderId: {}, status: {}",
+            request.getOrderId(), request.getStatus());
+
+        Mono<UpdateOrderStatusResponse> response = Mono.defer(() ->
+                orderService.updateOrderStatus(request.getOrderId(), convertToOrderStatus(request.getStatus())))
+            .map(orderDTO -> UpdateOrderStatusResponse.newBuilder()
+                .setOrder(convertToGrpcOrder(orderDTO))
                 .setSuccess(true)
-                .build();
-            
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-            log.debug("gRPC UpdateOrderStatus response sent for orderId: {}", request.getOrderId());
-        } catch (ResourceNotFoundException e) {
-            log.warn("Order not found: {}", request.getOrderId());
-            UpdateOrderStatusResponse response = UpdateOrderStatusResponse.newBuilder()
-                .setSuccess(false)
-                .setErrorMessage("Order not found: " + e.getMessage())
-                .build();
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-        } catch (Exception e) {
-            log.error("Error in gRPC UpdateOrderStatus for orderId: {}", request.getOrderId(), e);
-            responseObserver.onError(Status.INTERNAL
-                .withDescription("Internal server error: " + e.getMessage())
-                .asRuntimeException());
-        }
+                .build())
+            .onErrorResume(ResourceNotFoundException.class, e -> {
+                log.warn("Order not found: {}", request.getOrderId());
+                return Mono.just(UpdateOrderStatusResponse.newBuilder()
+                    .setSuccess(false)
+                    .setErrorMessage("Order not found: " + e.getMessage())
+                    .build());
+            })
+            .doOnSuccess(sent -> log.debug("gRPC UpdateOrderStatus response sent for orderId: {}", request.getOrderId()))
+            .doOnError(e -> log.error("Error in gRPC UpdateOrderStatus for orderId: {}", request.getOrderId(), e));
+
+        callExecutor.execute(response, responseObserver);
+    }
+
+    @Override
+    public void getOrders(GetOrdersRequest request, StreamObserver<GetOrdersResponse> responseObserver) {
+        log.debug("gRPC GetOrders request received for {} orders", request.getOrderIdsCount());
+
+        Mono<GetOrdersResponse> response = orderService.getOrdersByIds(request.getOrderIdsList())
+            .map(orders -> {
+                GetOrdersResponse.Builder builder = GetOrdersResponse.newBuilder();
+                orders.forEach(orderDTO -> builder.addOrders(convertToGrpcOrder(orderDTO)));
+                builder.addAllMissingOrderIds(missingIds(request.getOrderIdsList(), orders));
+                return builder.build();
+            })
+            .doOnError(e -> log.error("Error in gRPC GetOrders for {} orders", request.getOrderIdsCount(), e));
+
+        callExecutor.execute(response, responseObserver);
+    }
+
+    @Override
+    public void streamOrders(StreamOrdersRequest request, StreamObserver<Order> responseObserver) {
+        log.debug("gRPC StreamOrders request received for status: {}, customerId: {}",
+            request.hasStatus() ? request.getStatus() : null, request.getCustomerId());
+
+        Flux<Order> orders = Flux.defer(() -> orderService.streamOrders(
+                request.hasStatus() ? convertToOrderStatus(request.getStatus()) : null,
+                request.getCustomerId()))
+            .map(this::convertToGrpcOrder)
+            .doOnError(e -> log.error("Error in gRPC StreamOrders", e));
+
+        callExecutor.stream(orders, responseObserver);
+    }
+
+    @Override
+    public StreamObserver<UpdateOrderStatusRequest> updateOrderStatuses(
+            StreamObserver<UpdateOrderStatusesResponse> responseObserver) {
+        ReactiveGrpcCallExecutor.Call<UpdateOrderStatusesResponse> call = callExecutor.begin(responseObserver);
+        Map<Long, com.microservices.common.enums.OrderStatus> transitions = new LinkedHashMap<>();
+
+        // gRPC delivers the messages of one call sequentially, so the map needs no locking
+        return new StreamObserver<>() {
+            private boolean failed;
+
+            @Override
+            public void onNext(UpdateOrderStatusRequest request) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    transitions.put(request.getOrderId(), convertToOrderStatus(request.getStatus()));
+                    if (transitions.size() > maxBatchIds) {
+                        throw new BusinessException("BATCH_TOO_LARGE",
+                            "At most " + maxBatchIds + " orders can be updated in one call");
+                    }
+                } catch (RuntimeException e) {
+                    failed = true;
+                    call.fail(e);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("gRPC UpdateOrderStatuses request stream failed", t);
+            }
+
+            @Override
+            public void onCompleted() {
+                if (failed) {
+                    return;
+                }
+                log.debug("gRPC UpdateOrderStatuses request received for {} orders", transitions.size());
+                call.complete(orderService.updateOrderStatuses(transitions)
+                    .map(orders -> {
+                        UpdateOrderStatusesResponse.Builder builder = UpdateOrderStatusesResponse.newBuilder();
+                        orders.forEach(orderDTO -> builder.addOrders(convertToGrpcOrder(orderDTO)));
+                        builder.addAllMissingOrderIds(missingIds(transitions.keySet(), orders));
+                        return builder.build();
+                    })
+                    .doOnError(e -> log.error("Error in gRPC UpdateOrderStatuses for {} orders", transitions.size(), e)));
+            }
+        };
+    }
+
+    private static List<Long> missingIds(Collection<Long> requestedIds, List<OrderDTO> found) {
+        Set<Long> foundIds = found.stream().map(OrderDTO::getId).collect(Collectors.toSet());
+        return requestedIds.stream()
+            .filter(id -> !foundIds.contains(id))
+            .distinct()
+            .toList();
     }
 
     private Order convertToGrpcOrder(OrderDTO orderDTO) {
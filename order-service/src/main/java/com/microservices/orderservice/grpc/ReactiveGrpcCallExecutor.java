@@ -0,0 +1,170 @@
+package com.microservices.orderservice.grpc;
+
+import com.microservices.common.exception.BusinessException;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Subscription;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Completes gRPC calls from a {@link Mono} or {@link Flux} without holding the server thread.
+ * The pipeline is bounded by the caller's deadline and disposed when the call is cancelled,
+ * so abandoned calls stop before reaching the database.
+ */
+@Component
+public class ReactiveGrpcCallExecutor {
+
+    private final AtomicInteger inFlightCalls = new AtomicInteger();
+
+    public ReactiveGrpcCallExecutor(MeterRegistry meterRegistry) {
+        Gauge.builder("grpc.server.calls.in-flight", inFlightCalls, AtomicInteger::get)
+            .description("gRPC calls accepted but not yet completed")
+            .register(meterRegistry);
+    }
+
+    public <T> void execute(Mono<T> response, StreamObserver<T> responseObserver) {
+        begin(responseObserver).complete(response);
+    }
+
+    public <T> void stream(Flux<T> responses, StreamObserver<T> responseObserver) {
+        begin(responseObserver).stream(responses);
+    }
+
+    /**
+     * Binds cancellation, flow control and the deadline to the call. gRPC only accepts these
+     * handlers while the service method is running, so client-streaming calls must begin here
+     * and complete later once the request stream ends.
+     */
+    public <T> Call<T> begin(StreamObserver<T> responseObserver) {
+        Call<T> call = new Call<>(responseObserver, Context.current().getDeadline());
+        if (responseObserver instanceof ServerCallStreamObserver<T> serverObserver) {
+            serverObserver.setOnCancelHandler(call.subscription::dispose);
+            serverObserver.setOnReadyHandler(call::onReady);
+        }
+        return call;
+    }
+
+    private static Status toStatus(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return Status.DEADLINE_EXCEEDED.withDescription("Deadline exceeded while processing the request");
+        }
+        if (error instanceof BusinessException || error instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(error.getMessage());
+        }
+        return Status.INTERNAL.withDescription("Internal server error: " + error.getMessage());
+    }
+
+    public final class Call<T> {
+
+        private final StreamObserver<T> responseObserver;
+        private final Deadline deadline;
+        private final Disposable.Swap subscription = Disposables.swap();
+        private volatile Runnable onReady = () -> { };
+
+        private Call(StreamObserver<T> responseObserver, Deadline deadline) {
+            this.responseObserver = responseObserver;
+            this.deadline = deadline;
+        }
+
+        public void complete(Mono<T> response) {
+            inFlightCalls.incrementAndGet();
+            subscription.update(withDeadline(response)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No response produced")))
+                .doFinally(signal -> inFlightCalls.decrementAndGet())
+                .subscribe(
+                    value -> {
+                        responseObserver.onNext(value);
+                        responseObserver.onCompleted();
+                    },
+                    this::fail));
+        }
+
+        // Requests the next element only while the transport can take it, so a slow client
+        // holds back the database cursor instead of growing the outbound buffer
+        public void stream(Flux<T> responses) {
+            inFlightCalls.incrementAndGet();
+            FlowControlledSubscriber subscriber = new FlowControlledSubscriber();
+            onReady = subscriber::resume;
+            subscription.update(subscriber);
+            responses.doFinally(signal -> inFlightCalls.decrementAndGet()).subscribe(subscriber);
+        }
+
+        public void fail(Throwable error) {
+            responseObserver.onError(toStatus(error).asRuntimeException());
+        }
+
+        private void onReady() {
+            onReady.run();
+        }
+
+        private boolean isReady() {
+            return !(responseObserver instanceof ServerCallStreamObserver<T> serverObserver) || serverObserver.isReady();
+        }
+
+        private Mono<T> withDeadline(Mono<T> response) {
+            return deadline == null
+                ? response
+                : response.timeout(Duration.ofNanos(Math.max(0, deadline.timeRemaining(TimeUnit.NANOSECONDS))));
+        }
+
+        private final class FlowControlledSubscriber extends BaseSubscriber<T> {
+
+            private final AtomicBoolean awaitingReady = new AtomicBoolean();
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                requestWhenReady();
+            }
+
+            @Override
+            protected void hookOnNext(T value) {
+                responseObserver.onNext(value);
+                requestWhenReady();
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                responseObserver.onCompleted();
+            }
+
+            @Override
+            protected void hookOnError(Throwable error) {
+                fail(error);
+            }
+
+            private void requestWhenReady() {
+                if (isReady()) {
+                    request(1);
+                    return;
+                }
+                awaitingReady.set(true);
+                // The transport may have drained between the check and the flag being set
+                if (isReady()) {
+                    resume();
+                }
+            }
+
+            private void resume() {
+                if (awaitingReady.compareAndSet(true, false)) {
+                    request(1);
+                }
+            }
+        }
+    }
+}
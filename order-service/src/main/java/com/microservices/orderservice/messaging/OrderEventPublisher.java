@@ -1,5 +1,6 @@
 package com.microservices.orderservice.messaging;
 
+import com.microservices.common.event.OrderBatchCreatedEvent;
 import com.microservices.common.event.OrderCreatedEvent;
 import com.microservices.common.event.OrderStatusUpdatedEvent;
 import com.microservices.orderservice.config.RabbitMQConfig;
@@ -30,6 +31,21 @@ public class OrderEventPublisher {
         }
     }
 
+    public void publishOrderBatchCreated(OrderBatchCreatedEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(
+                RabbitMQConfig.ORDER_EXCHANGE,
+                RabbitMQConfig.ORDER_BATCH_CREATED_ROUTING_KEY,
+                event
+            );
+            log.info("Published order batch created event: eventId={}, orders={}",
+                event.getEventId(), event.getOrders().size());
+        } catch (Exception e) {
+            log.error("Failed to publish order batch created event: eventId={}",
+                event.getEventId(), e);
+        }
+    }
+
     public void publishOrderStatusUpdated(OrderStatusUpdatedEvent event) {
         try {
             rabbitTemplate.convertAndSend(
@@ -0,0 +1,30 @@
+package com.microservices.orderservice.messaging;
+
+import com.microservices.common.event.OrderStatusUpdatedEvent;
+import com.microservices.orderservice.cache.TwoLevelCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives status changes made by any order-service instance (including this one) through a
+ * per-instance queue, so watchers and both cache tiers stay current cluster-wide.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatusEventListener {
+
+    private final OrderStatusHub orderStatusHub;
+    private final TwoLevelCache ordersCache;
+
+    @RabbitListener(queues = "#{orderStatusBroadcastQueue.name}")
+    public void handleOrderStatusUpdated(OrderStatusUpdatedEvent event) {
+        log.debug("Received order status broadcast: orderId={}, newStatus={}",
+            event.getOrderId(), event.getNewStatus());
+        // Both tiers: a read that raced the update, or a failed remote evict, may have left the old order in Redis
+        ordersCache.evict(event.getOrderId());
+        orderStatusHub.publish(event);
+    }
+}
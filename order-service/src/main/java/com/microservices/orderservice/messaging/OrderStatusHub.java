@@ -0,0 +1,116 @@
+package com.microservices.orderservice.messaging;
+
+import com.microservices.common.event.OrderStatusUpdatedEvent;
+import com.microservices.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of order status changes to per-order watchers.
+ * Each registration gets its own bounded buffer; when a slow watcher's buffer is full further
+ * changes for it are dropped rather than buffered without limit.
+ */
+@Slf4j
+@Component
+public class OrderStatusHub {
+
+    @Value("${orders.watch.max-subscriptions:10000}")
+    private int maxSubscriptions;
+
+    @Value("${orders.watch.buffer-size:16}")
+    private int bufferSize;
+
+    private final Map<Long, Set<Sinks.Many<OrderStatusUpdatedEvent>>> watchers = new ConcurrentHashMap<>();
+    private final AtomicInteger activeRegistrations = new AtomicInteger();
+    private final Counter droppedEvents;
+
+    public OrderStatusHub(MeterRegistry meterRegistry) {
+        Gauge.builder("orders.watch.subscriptions", activeRegistrations, AtomicInteger::get)
+            .description("Active order status watch registrations")
+            .register(meterRegistry);
+        this.droppedEvents = Counter.builder("orders.watch.dropped")
+            .description("Status changes dropped because a watcher buffer was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts buffering status changes for the order immediately. The caller must close the
+     * registration once it stops consuming {@link Registration#updates()}.
+     */
+    public Registration register(Long orderId) {
+        if (activeRegistrations.incrementAndGet() > maxSubscriptions) {
+            activeRegistrations.decrementAndGet();
+            throw new ServiceOverloadedException("WATCH_LIMIT_REACHED",
+                "Too many active order watches, please retry later", 5);
+        }
+        Sinks.Many<OrderStatusUpdatedEvent> sink = Sinks.many().unicast()
+            .onBackpressureBuffer(Queues.<OrderStatusUpdatedEvent>get(bufferSize).get());
+        watchers.compute(orderId, (id, sinks) -> {
+            Set<Sinks.Many<OrderStatusUpdatedEvent>> registered = sinks != null ? sinks : ConcurrentHashMap.newKeySet();
+            registered.add(sink);
+            return registered;
+        });
+        return new Registration(orderId, sink);
+    }
+
+    public void publish(OrderStatusUpdatedEvent event) {
+        Set<Sinks.Many<OrderStatusUpdatedEvent>> sinks = watchers.get(event.getOrderId());
+        if (sinks == null) {
+            return;
+        }
+        for (Sinks.Many<OrderStatusUpdatedEvent> sink : sinks) {
+            Sinks.EmitResult result;
+            while ((result = sink.tryEmitNext(event)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                droppedEvents.increment();
+                log.debug("Watcher buffer full, dropped status change for order {}", event.getOrderId());
+            }
+        }
+    }
+
+    private void unregister(Long orderId, Sinks.Many<OrderStatusUpdatedEvent> sink) {
+        watchers.computeIfPresent(orderId, (id, sinks) -> {
+            sinks.remove(sink);
+            return sinks.isEmpty() ? null : sinks;
+        });
+        activeRegistrations.decrementAndGet();
+    }
+
+    public final class Registration implements AutoCloseable {
+        private final Long orderId;
+        private final Sinks.Many<OrderStatusUpdatedEvent> sink;
+        private boolean closed;
+
+        private Registration(Long orderId, Sinks.Many<OrderStatusUpdatedEvent> sink) {
+            this.orderId = orderId;
+            this.sink = sink;
+        }
+
+        public Flux<OrderStatusUpdatedEvent> updates() {
+            return sink.asFlux();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                unregister(orderId, sink);
+                sink.tryEmitComplete();
+            }
+        }
+    }
+}
@@ -11,8 +11,13 @@ import java.time.LocalDateTime;
 @Table(name = "orders")
 @NoArgsConstructor
 public class Order {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence allocation keeps ids client-side so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_partitioned_id_seq",
+        allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
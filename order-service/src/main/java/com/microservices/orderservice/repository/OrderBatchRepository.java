@@ -0,0 +1,87 @@
+package com.microservices.orderservice.repository;
+
+import com.microservices.orderservice.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Bulk write path that bypasses the {@code orders} view and its per-row INSTEAD OF triggers,
+ * writing batched statements straight into {@code orders_partitioned}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchRepository {
+
+    private static final String RESERVE_ID_BLOCKS_SQL =
+        "SELECT nextval('orders_partitioned_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO orders_partitioned (id, customer_id, amount, status, description, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Matching on created_at prunes each update to the partition holding the order
+    private static final String UPDATE_STATUS_SQL =
+        "UPDATE orders_partitioned SET status = ?, updated_at = ? WHERE id = ? AND created_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    /**
+     * Assigns ids and inserts all orders in one transaction. Callers must set {@code createdAt}
+     * and {@code updatedAt}, since entity lifecycle callbacks do not run on this path.
+     */
+    @Transactional
+    public List<Order> insertAll(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        assignIds(orders);
+        jdbcTemplate.batchUpdate(INSERT_SQL, orders, jdbcBatchSize, (ps, order) -> {
+            ps.setLong(1, order.getId());
+            ps.setString(2, order.getCustomerId());
+            ps.setBigDecimal(3, order.getAmount());
+            ps.setString(4, order.getStatus().name());
+            ps.setString(5, order.getDescription());
+            ps.setTimestamp(6, Timestamp.valueOf(order.getCreatedAt()));
+            ps.setTimestamp(7, Timestamp.valueOf(order.getUpdatedAt()));
+        });
+        return orders;
+    }
+
+    /**
+     * Writes the in-memory status and {@code updatedAt} of each order in batched statements.
+     */
+    @Transactional
+    public void updateStatuses(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, orders, jdbcBatchSize, (ps, order) -> {
+            ps.setString(1, order.getStatus().name());
+            ps.setTimestamp(2, Timestamp.valueOf(order.getUpdatedAt()));
+            ps.setLong(3, order.getId());
+            ps.setTimestamp(4, Timestamp.valueOf(order.getCreatedAt()));
+        });
+    }
+
+    // Same block layout as Hibernate's pooled optimizer: each sequence value is the top of a block
+    private void assignIds(List<Order> orders) {
+        int blocks = (orders.size() + Order.ID_ALLOCATION_SIZE - 1) / Order.ID_ALLOCATION_SIZE;
+        List<Long> blockTops = jdbcTemplate.queryForList(RESERVE_ID_BLOCKS_SQL, Long.class, blocks);
+        int index = 0;
+        for (Long top : blockTops) {
+            long next = top - Order.ID_ALLOCATION_SIZE + 1;
+            for (int i = 0; i < Order.ID_ALLOCATION_SIZE && index < orders.size(); i++) {
+                orders.get(index++).setId(next++);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.microservices.orderservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory map from order id to the {@code created_at} range of the monthly partition holding it.
+ * Ids come from a single sequence, so each partition covers a compact id range; bounding an id
+ * lookup by that range lets Postgres prune every other partition.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderPartitionDirectory {
+
+    private static final String PARTITIONS_SQL =
+        "SELECT c.relname, " +
+        "(regexp_match(pg_get_expr(c.relpartbound, c.oid), " +
+        "'FOR VALUES FROM \\(''([^'']+)''\\) TO \\(''([^'']+)''\\)'))[1]::timestamp AS lower_bound, " +
+        "(regexp_match(pg_get_expr(c.relpartbound, c.oid), " +
+        "'FOR VALUES FROM \\(''([^'']+)''\\) TO \\(''([^'']+)''\\)'))[2]::timestamp AS upper_bound " +
+        "FROM pg_class c " +
+        "JOIN pg_inherits i ON c.oid = i.inhrelid " +
+        "JOIN pg_class p ON i.inhparent = p.oid " +
+        "WHERE p.relname = 'orders_partitioned'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // New orders may land in a partition the last refresh has not seen yet; allow for clock skew too
+    @Value("${orders.partition-directory.open-range-slack:1d}")
+    private Duration openRangeSlack;
+
+    private volatile List<PartitionRange> partitions = List.of();
+
+    /**
+     * Returns the {@code [from, to)} creation-time window that must contain the order, or empty when
+     * the directory cannot place the id and the caller has to search every partition.
+     */
+    public Optional<TimeWindow> locate(long id) {
+        List<PartitionRange> snapshot = partitions;
+        if (snapshot.isEmpty()) {
+            return Optional.empty();
+        }
+
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (PartitionRange partition : snapshot) {
+            if (id >= partition.minId() && id <= partition.maxId()) {
+                from = from == null || partition.lowerBound().isBefore(from) ? partition.lowerBound() : from;
+                to = to == null || partition.upperBound().isAfter(to) ? partition.upperBound() : to;
+            }
+        }
+        if (from != null) {
+            return Optional.of(new TimeWindow(from, to));
+        }
+
+        // Ids past the highest known one were created after the last refresh
+        PartitionRange newest = snapshot.get(snapshot.size() - 1);
+        if (id > newest.maxId()) {
+            return Optional.of(new TimeWindow(newest.lowerBound(), LocalDateTime.now().plus(openRangeSlack)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the smallest window covering every id, or empty when any of them cannot be placed.
+     */
+    public Optional<TimeWindow> locateAll(Collection<Long> ids) {
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (Long id : ids) {
+            Optional<TimeWindow> window = locate(id);
+            if (window.isEmpty()) {
+                return Optional.empty();
+            }
+            from = from == null || window.get().from().isBefore(from) ? window.get().from() : from;
+            to = to == null || window.get().to().isAfter(to) ? window.get().to() : to;
+        }
+        return from == null ? Optional.empty() : Optional.of(new TimeWindow(from, to));
+    }
+
+    @Scheduled(fixedDelayString = "${orders.partition-directory.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            Map<String, PartitionRange> previous = new HashMap<>();
+            partitions.forEach(partition -> previous.put(partition.name(), partition));
+            LocalDateTime sealedBefore = LocalDateTime.now().minus(openRangeSlack);
+
+            List<PartitionRange> bounds = jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) -> {
+                Timestamp lowerBound = rs.getTimestamp("lower_bound");
+                Timestamp upperBound = rs.getTimestamp("upper_bound");
+                return lowerBound == null || upperBound == null ? null : new PartitionRange(
+                    rs.getString("relname"), lowerBound.toLocalDateTime(), upperBound.toLocalDateTime(), 0, 0);
+            });
+
+            List<PartitionRange> refreshed = new ArrayList<>();
+            for (PartitionRange partition : bounds) {
+                if (partition == null) {
+                    continue;
+                }
+                // Partitions whose month is over no longer receive rows, so their id range is final
+                PartitionRange known = previous.get(partition.name());
+                if (known != null && partition.upperBound().isBefore(sealedBefore)) {
+                    refreshed.add(known);
+                    continue;
+                }
+                jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM " + quoteIdentifier(partition.name()), rs -> {
+                    long minId = rs.getLong(1);
+                    if (!rs.wasNull()) {
+                        refreshed.add(new PartitionRange(partition.name(), partition.lowerBound(),
+                            partition.upperBound(), minId, rs.getLong(2)));
+                    }
+                });
+            }
+            refreshed.sort(Comparator.comparingLong(PartitionRange::maxId));
+            partitions = List.copyOf(refreshed);
+            log.debug("Refreshed order partition directory: {} non-empty partitions", refreshed.size());
+        } catch (Exception e) {
+            log.warn("Failed to refresh order partition directory, keeping previous snapshot", e);
+        }
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    public record TimeWindow(LocalDateTime from, LocalDateTime to) {
+    }
+
+    private record PartitionRange(String name, LocalDateTime lowerBound, LocalDateTime upperBound,
+                                  long minId, long maxId) {
+    }
+}
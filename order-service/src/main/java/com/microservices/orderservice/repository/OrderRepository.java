@@ -2,14 +2,46 @@ package com.microservices.orderservice.repository;
 
 import com.microservices.common.enums.OrderStatus;
 import com.microservices.orderservice.model.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatus(OrderStatus status);
     List<Order> findByCustomerId(String customerId);
-}
 
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findLatest(Limit limit);
+
+    // The redundant createdAt <= :createdAt bound lets Postgres prune newer partitions up front
+    @Query("SELECT o FROM Order o WHERE o.createdAt <= :createdAt " +
+        "AND (o.createdAt < :createdAt OR o.id < :id) " +
+        "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findLatestBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Bounding created_at restricts the lookup to the partitions covering [from, to)
+    @Query("SELECT o FROM Order o WHERE o.id = :id AND o.createdAt >= :from AND o.createdAt < :to")
+    Optional<Order> findByIdWithin(@Param("id") Long id, @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.createdAt >= :from AND o.createdAt < :to")
+    List<Order> findAllByIdWithin(@Param("ids") Collection<Long> ids, @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :updatedAt " +
+        "WHERE o.id = :id AND o.createdAt = :createdAt")
+    int updateStatus(@Param("id") Long id, @Param("createdAt") LocalDateTime createdAt,
+                     @Param("status") OrderStatus status, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,45 @@
+package com.microservices.orderservice.service;
+
+import com.microservices.common.exception.BusinessException;
+import com.microservices.orderservice.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position of the last order returned by a keyset page, ordered by {@code (createdAt, id)} descending.
+ * Encoded as an opaque URL-safe token so clients cannot depend on its layout.
+ */
+record OrderCursor(LocalDateTime createdAt, Long id) {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    static OrderCursor of(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    String encode() {
+        long micros = createdAt.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + createdAt.getNano() / 1_000;
+        String raw = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(':');
+            long micros = Long.parseLong(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000,
+                ZoneOffset.UTC
+            );
+            return new OrderCursor(createdAt, id);
+        } catch (RuntimeException e) {
+            throw new BusinessException("INVALID_CURSOR", "Invalid pagination cursor", e);
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.microservices.orderservice.service;
 
+import com.microservices.common.dto.CursorPage;
 import com.microservices.common.dto.OrderDTO;
 import com.microservices.common.enums.OrderStatus;
+import com.microservices.common.event.OrderBatchCreatedEvent;
 import com.microservices.common.event.OrderCreatedEvent;
 import com.microservices.common.event.OrderStatusUpdatedEvent;
+import com.microservices.common.exception.BusinessException;
 import com.microservices.common.exception.ResourceNotFoundException;
+import com.microservices.common.jpa.JpaCursorStreamer;
+import com.microservices.orderservice.cache.TwoLevelCache;
 import com.microservices.orderservice.messaging.OrderEventPublisher;
+import com.microservices.orderservice.messaging.OrderStatusHub;
 import com.microservices.orderservice.model.Order;
+import com.microservices.orderservice.repository.OrderBatchRepository;
+import com.microservices.orderservice.repository.OrderPartitionDirectory;
 import com.microservices.orderservice.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
@@ -19,8 +29,17 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -28,8 +47,24 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final EnumSet<OrderStatus> FINAL_STATUSES = EnumSet.of(OrderStatus.CANCELLED, OrderStatus.COMPLETED);
+
     private final OrderRepository orderRepository;
     private final OrderEventPublisher orderEventPublisher;
+    private final JpaCursorStreamer cursorStreamer;
+    private final TwoLevelCache ordersCache;
+    private final OrderStatusHub orderStatusHub;
+    private final OrderBatchRepository orderBatchRepository;
+    private final OrderPartitionDirectory partitionDirectory;
+
+    @Value("${orders.watch.max-duration:10m}")
+    private Duration maxWatchDuration;
+
+    @Value("${orders.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${orders.batch.max-ids:1000}")
+    private int maxBatchIds;
 
     public Mono<OrderDTO> createOrder(OrderDTO orderDTO) {
         return Mono.fromCallable(() -> {
@@ -53,10 +88,10 @@ public class OrderService {
 
     public Mono<OrderDTO> getOrderById(@NonNull Long id) {
         Long orderId = Objects.requireNonNull(id, "Order ID cannot be null");
-        return Mono.fromCallable(() -> orderRepository.findById(orderId)
-            .orElseThrow(() -> new ResourceNotFoundException("Order", orderId)))
-        .subscribeOn(Schedulers.boundedElastic())
-        .map(this::convertToDTO);
+        return Mono.fromCallable(() -> ordersCache.get(orderId, () -> findOrder(orderId)
+            .map(this::convertToDTO)
+            .orElseThrow(() -> new ResourceNotFoundException("Order", orderId))))
+        .subscribeOn(Schedulers.boundedElastic());
     }
 
     public Mono<Page<OrderDTO>> getAllOrders(Pageable pageable) {
@@ -65,75 +100,230 @@ public class OrderService {
         .subscribeOn(Schedulers.boundedElastic());
     }
 
+    public Mono<CursorPage<OrderDTO>> getOrdersPage(String cursor, int size) {
+        return Mono.fromCallable(() -> {
+            OrderCursor after = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+            // Fetch one extra row to learn whether another page exists without counting
+            Limit limit = Limit.of(size + 1);
+            List<Order> orders = after == null
+                ? orderRepository.findLatest(limit)
+                : orderRepository.findLatestBefore(after.createdAt(), after.id(), limit);
+
+            boolean hasNext = orders.size() > size;
+            List<Order> pageOrders = hasNext ? orders.subList(0, size) : orders;
+            String nextCursor = hasNext ? OrderCursor.of(pageOrders.get(size - 1)).encode() : null;
+
+            return CursorPage.<OrderDTO>builder()
+                .content(pageOrders.stream().map(this::convertToDTO).toList())
+                .size(pageOrders.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+        })
+        .subscribeOn(Schedulers.boundedElastic());
+    }
+
     public Flux<OrderDTO> getAllOrdersStreaming() {
-        return Flux.fromIterable(orderRepository.findAll())
+        return cursorStreamer.stream("SELECT o FROM Order o", Order.class)
             .map(this::convertToDTO)
-            .subscribeOn(Schedulers.boundedElastic())
             .doOnNext(order -> log.debug("Streaming order: {}", order.getId()));
     }
 
     public Flux<OrderDTO> getOrdersByStatus(OrderStatus status) {
-        return Flux.fromIterable(orderRepository.findByStatus(status))
+        return cursorStreamer.stream("SELECT o FROM Order o WHERE o.status = :status", Order.class,
+                Map.of("status", status))
             .map(this::convertToDTO)
-            .subscribeOn(Schedulers.boundedElastic())
             .doOnNext(order -> log.debug("Streaming order with status {}: {}", status, order.getId()));
     }
 
     public Flux<OrderDTO> getOrdersByCustomerId(String customerId) {
-        return Flux.fromIterable(orderRepository.findByCustomerId(customerId))
+        return cursorStreamer.stream("SELECT o FROM Order o WHERE o.customerId = :customerId", Order.class,
+                Map.of("customerId", customerId))
             .map(this::convertToDTO)
-            .subscribeOn(Schedulers.boundedElastic())
             .doOnNext(order -> log.debug("Streaming order for customer {}: {}", customerId, order.getId()));
     }
 
+    /**
+     * Streams orders matching every given filter; a {@code null} filter is ignored.
+     */
+    public Flux<OrderDTO> streamOrders(OrderStatus status, String customerId) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        if (status != null) {
+            conditions.add("o.status = :status");
+            params.put("status", status);
+        }
+        if (customerId != null && !customerId.isBlank()) {
+            conditions.add("o.customerId = :customerId");
+            params.put("customerId", customerId);
+        }
+        String jpql = conditions.isEmpty()
+            ? "SELECT o FROM Order o"
+            : "SELECT o FROM Order o WHERE " + String.join(" AND ", conditions);
+        return cursorStreamer.stream(jpql, Order.class, params)
+            .map(this::convertToDTO);
+    }
+
+    /**
+     * Looks up all orders in one query. Ids that do not exist are absent from the result.
+     */
+    public Mono<List<OrderDTO>> getOrdersByIds(Collection<Long> ids) {
+        return Mono.fromCallable(() -> {
+            requireBatchSize(ids.size());
+            return findOrders(Set.copyOf(ids)).stream()
+                .map(this::convertToDTO)
+                .toList();
+        })
+        .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Applies the status transitions with one lookup and one batched update.
+     * Ids that do not exist are skipped and absent from the result.
+     */
+    public Mono<List<OrderDTO>> updateOrderStatuses(Map<Long, OrderStatus> transitions) {
+        return Mono.fromCallable(() -> {
+            requireBatchSize(transitions.size());
+            List<Order> orders = findOrders(transitions.keySet());
+            LocalDateTime now = LocalDateTime.now();
+            List<OrderStatusUpdatedEvent> events = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                OrderStatus oldStatus = order.getStatus();
+                order.setStatus(transitions.get(order.getId()));
+                order.setUpdatedAt(now);
+                events.add(OrderStatusUpdatedEvent.create(order.getId(), oldStatus, order.getStatus()));
+            }
+            orderBatchRepository.updateStatuses(orders);
+
+            for (OrderStatusUpdatedEvent event : events) {
+                ordersCache.evict(event.getOrderId());
+                orderEventPublisher.publishOrderStatusUpdated(event);
+            }
+            log.info("Updated status of {} of {} requested orders", orders.size(), transitions.size());
+            return orders;
+        })
+        .subscribeOn(Schedulers.boundedElastic())
+        .map(orders -> orders.stream().map(this::convertToDTO).toList());
+    }
+
     public Mono<OrderDTO> updateOrderStatus(@NonNull Long id, OrderStatus status) {
         Long orderId = Objects.requireNonNull(id, "Order ID cannot be null");
         return Mono.fromCallable(() -> {
-            Order order = orderRepository.findById(orderId)
+            Order order = findOrder(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
             OrderStatus oldStatus = order.getStatus();
+            LocalDateTime now = LocalDateTime.now();
+            // Match on created_at as well so the update only touches the order's own partition
+            if (orderRepository.updateStatus(orderId, order.getCreatedAt(), status, now) == 0) {
+                throw new ResourceNotFoundException("Order", orderId);
+            }
             order.setStatus(status);
-            Order savedOrder = orderRepository.save(order);
+            order.setUpdatedAt(now);
+            ordersCache.evict(orderId);
             // Publish order status updated event
             OrderStatusUpdatedEvent event = OrderStatusUpdatedEvent.create(
-                savedOrder.getId(),
+                order.getId(),
                 oldStatus,
-                savedOrder.getStatus()
+                order.getStatus()
             );
             orderEventPublisher.publishOrderStatusUpdated(event);
-            return savedOrder;
+            return order;
         })
         .subscribeOn(Schedulers.boundedElastic())
         .map(this::convertToDTO);
     }
 
     public Flux<OrderDTO> createOrdersBatch(List<OrderDTO> orderDTOs) {
-        log.info("Creating {} orders in parallel", orderDTOs.size());
-        
+        log.info("Creating {} orders in chunks of {}", orderDTOs.size(), batchChunkSize);
+
         return Flux.fromIterable(orderDTOs)
-            .flatMap(orderDTO -> 
-                createOrder(orderDTO)
-                    .onErrorResume(error -> {
-                        log.error("Failed to create order for customerId: {}", orderDTO.getCustomerId(), error);
-                        OrderDTO failedOrder = new OrderDTO();
-                        failedOrder.setCustomerId(orderDTO.getCustomerId());
-                        failedOrder.setAmount(orderDTO.getAmount());
-                        failedOrder.setDescription(orderDTO.getDescription());
-                        failedOrder.setStatus(OrderStatus.CANCELLED);
-                        return Mono.just(failedOrder);
-                    })
-            )
-            .parallel()
-            .runOn(Schedulers.parallel())
-            .sequential();
+            .buffer(batchChunkSize)
+            .concatMap(chunk -> Mono.fromCallable(() -> insertOrdersChunk(chunk))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(error -> {
+                    log.error("Failed to create batch of {} orders", chunk.size(), error);
+                    return Mono.just(chunk.stream().map(this::toFailedOrder).toList());
+                }))
+            .flatMapIterable(orders -> orders);
+    }
+
+    private List<OrderDTO> insertOrdersChunk(List<OrderDTO> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> orders = chunk.stream()
+            .map(orderDTO -> {
+                Order order = new Order(
+                    orderDTO.getCustomerId(),
+                    orderDTO.getAmount(),
+                    OrderStatus.PENDING,
+                    orderDTO.getDescription()
+                );
+                order.setCreatedAt(now);
+                order.setUpdatedAt(now);
+                return order;
+            })
+            .toList();
+
+        List<OrderDTO> created = orderBatchRepository.insertAll(orders).stream()
+            .map(this::convertToDTO)
+            .toList();
+        orderEventPublisher.publishOrderBatchCreated(OrderBatchCreatedEvent.fromOrderDTOs(created));
+        return created;
+    }
+
+    private OrderDTO toFailedOrder(OrderDTO orderDTO) {
+        OrderDTO failedOrder = new OrderDTO();
+        failedOrder.setCustomerId(orderDTO.getCustomerId());
+        failedOrder.setAmount(orderDTO.getAmount());
+        failedOrder.setDescription(orderDTO.getDescription());
+        failedOrder.setStatus(OrderStatus.CANCELLED);
+        return failedOrder;
     }
 
     public Flux<OrderDTO> watchOrderStatusChanges(Long orderId) {
-        return Flux.interval(java.time.Duration.ofSeconds(1))
-            .flatMap(tick -> getOrderById(orderId))
+        // Register before reading the current state so no change between the read and the subscription is lost
+        return Flux.using(
+                () -> orderStatusHub.register(orderId),
+                registration -> getOrderById(orderId)
+                    .flatMapMany(current -> registration.updates().scan(current, this::applyStatusChange)),
+                OrderStatusHub.Registration::close
+            )
             .distinctUntilChanged(OrderDTO::getStatus)
             .doOnNext(order -> log.info("Order {} status changed to: {}", orderId, order.getStatus()))
-            .take(10);
+            .takeUntil(order -> FINAL_STATUSES.contains(order.getStatus()))
+            .take(maxWatchDuration);
+    }
+
+    private OrderDTO applyStatusChange(OrderDTO current, OrderStatusUpdatedEvent event) {
+        OrderDTO updated = new OrderDTO(current.getId(), current.getCustomerId(), current.getAmount(), event.getNewStatus());
+        updated.setDescription(current.getDescription());
+        updated.setCreatedAt(current.getCreatedAt());
+        updated.setUpdatedAt(event.getUpdatedAt());
+        return updated;
+    }
+
+    // Prune to the partitions the directory places the id in; ids can straddle a month boundary
+    // when instances hand out pooled id blocks, so a miss falls back to searching every partition
+    private Optional<Order> findOrder(Long orderId) {
+        return partitionDirectory.locate(orderId)
+            .flatMap(window -> orderRepository.findByIdWithin(orderId, window.from(), window.to()))
+            .or(() -> orderRepository.findById(orderId));
+    }
+
+    private List<Order> findOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<Order> found = partitionDirectory.locateAll(orderIds)
+            .map(window -> orderRepository.findAllByIdWithin(orderIds, window.from(), window.to()))
+            .orElse(List.of());
+        return found.size() == orderIds.size() ? found : orderRepository.findAllById(orderIds);
+    }
+
+    private void requireBatchSize(int size) {
+        if (size > maxBatchIds) {
+            throw new BusinessException("BATCH_TOO_LARGE",
+                "At most " + maxBatchIds + " orders can be requested at once, got " + size);
+        }
     }
 
     private OrderDTO convertToDTO(Order order) {
@@ -0,0 +1,7 @@
+-- Index backing keyset (cursor) pagination over orders
+-- Listing walks (created_at, id) in descending order, so a matching composite index lets each
+-- page start with an index seek inside the newest relevant partition instead of OFFSET scanning
+
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders_partitioned (created_at, id);
+
+COMMENT ON INDEX idx_orders_created_at_id IS 'Supports keyset pagination ordered by (created_at, id)';
@@ -0,0 +1,15 @@
+-- Switch order ids to pooled sequence allocation
+-- Each nextval reserves a block of 50 ids (value - 49 .. value) that the application hands out
+-- locally, which allows JDBC batching and lets bulk imports reserve ids in a single round trip.
+-- Must match Order.ID_ALLOCATION_SIZE.
+
+ALTER SEQUENCE orders_partitioned_id_seq INCREMENT BY 50;
+
+-- Move the sequence past existing ids so the first reserved block never overlaps them
+SELECT setval(
+    'orders_partitioned_id_seq',
+    (SELECT COALESCE(MAX(id), 0) FROM orders_partitioned) + 50,
+    true
+);
+
+COMMENT ON SEQUENCE orders_partitioned_id_seq IS 'Pooled id allocation, 50 ids per nextval (see Order.ID_ALLOCATION_SIZE)';
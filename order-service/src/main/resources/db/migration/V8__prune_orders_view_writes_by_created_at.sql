@@ -0,0 +1,35 @@
+-- Route UPDATE/DELETE through the orders view to a single partition
+-- The INSTEAD OF triggers matched on id only, which probes the primary key index of every monthly
+-- partition. OLD.created_at is the partition key of the existing row, so adding it to the predicate
+-- lets Postgres prune to the one partition that holds the order.
+
+CREATE OR REPLACE FUNCTION orders_update_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE orders_partitioned
+    SET 
+        customer_id = NEW.customer_id,
+        amount = NEW.amount,
+        status = NEW.status,
+        description = NEW.description,
+        updated_at = NOW()
+    WHERE id = NEW.id
+      AND created_at = OLD.created_at;
+    
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'Order with id % not found', NEW.id;
+    END IF;
+    
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION orders_delete_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM orders_partitioned
+    WHERE id = OLD.id
+      AND created_at = OLD.created_at;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,318 @@
+package com.microservices.paymentservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.common.dto.PaymentDTO;
+import com.microservices.common.exception.BaseException;
+import com.microservices.common.exception.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Remembers the outcome of payment submissions by caller and {@code Idempotency-Key}. Completed results
+ * sit in a local LRU in front of Redis. While the first request runs, Redis holds a claim on the key that
+ * is renewed until the work finishes, so duplicates on any instance wait for its result instead of paying
+ * twice. Attempts that fail before the work commits (for a payment, before the processor is asked to charge)
+ * release the key so the client can retry them; failures after that are stored and replayed like results,
+ * as a retry could charge the customer again.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "payments:idempotency:";
+    private static final String PENDING = "PENDING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    // Claims are only renewed or released by the instance that wrote them, compared by value
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+          return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+          return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> completedResults;
+    // Duplicates arriving at this instance join the running attempt without touching Redis
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final Duration claimTimeToLive;
+    private final Duration claimRenewInterval;
+    private final Duration resultTimeToLive;
+    private final Duration pollInterval;
+    private final Duration maxWait;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter joined;
+    private final Counter conflicts;
+
+    public IdempotencyStore(ReactiveStringRedisTemplate redisTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${payment.idempotency.local.maximum-size:10000}") long localMaximumSize,
+                            @Value("${payment.idempotency.local.time-to-live:10m}") Duration localTimeToLive,
+                            @Value("${payment.idempotency.claim-time-to-live:30s}") Duration claimTimeToLive,
+                            @Value("${payment.idempotency.result-time-to-live:24h}") Duration resultTimeToLive,
+                            @Value("${payment.idempotency.poll-interval:100ms}") Duration pollInterval,
+                            @Value("${payment.idempotency.max-wait:30s}") Duration maxWait) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.completedResults = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localTimeToLive)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completedResults, "paymentIdempotency");
+        this.claimTimeToLive = claimTimeToLive;
+        // Several renewals fit in one time to live, so a single slow or failed one does not lose the claim
+        this.claimRenewInterval = claimTimeToLive.dividedBy(3);
+        this.resultTimeToLive = resultTimeToLive;
+        this.pollInterval = pollInterval;
+        this.maxWait = maxWait;
+
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+        this.joined = requestCounter(meterRegistry, "joined");
+        this.conflicts = requestCounter(meterRegistry, "conflict");
+    }
+
+    /**
+     * Runs {@code work} at most once per caller and key and returns its result to every request from that
+     * caller using that key. Reusing a key for a different payment fails with {@link ConflictException}.
+     * <p>
+     * {@code work} is given a callback to run once it commits to an effect that must not be repeated. A failure
+     * before that releases the key; a failure after it is replayed to later requests with the same key.
+     */
+    public Mono<Outcome> execute(String caller, String idempotencyKey, PaymentDTO request,
+                                 Function<Runnable, Mono<PaymentDTO>> work) {
+        // Length-prefixed so that no caller and key pair can spell another's
+        String key = caller.length() + ":" + caller + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        return Mono.defer(() -> {
+            Entry local = completedResults.getIfPresent(key);
+            if (local != null) {
+                return replay(local, fingerprint);
+            }
+
+            AtomicReference<InFlight> self = new AtomicReference<>();
+            Mono<Outcome> attempt = claimAndRun(key, fingerprint, work, System.nanoTime() + maxWait.toNanos())
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+            self.set(new InFlight(fingerprint, attempt));
+
+            InFlight existing = inFlight.putIfAbsent(key, self.get());
+            if (existing == null) {
+                return attempt;
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                return Mono.error(keyReused());
+            }
+            joined.increment();
+            return existing.outcome().map(outcome -> new Outcome(outcome.payment(), true));
+        });
+    }
+
+    private Mono<Outcome> claimAndRun(String key, String fingerprint, Function<Runnable, Mono<PaymentDTO>> work,
+                                      long deadline) {
+        String redisKey = KEY_PREFIX + key;
+        String claim = write(new Entry(PENDING, fingerprint, UUID.randomUUID().toString(), null, null));
+        return redisTemplate.opsForValue()
+            .setIfAbsent(redisKey, claim, claimTimeToLive)
+            .onErrorResume(error -> {
+                log.warn("Redis unavailable, idempotency key {} is only protected on this instance", key, error);
+                return Mono.just(true);
+            })
+            .flatMap(claimed -> claimed
+                ? run(redisKey, claim, key, fingerprint, work)
+                : awaitResult(redisKey, key, fingerprint, work, deadline));
+    }
+
+    private Mono<Outcome> run(String redisKey, String claim, String key, String fingerprint,
+                              Function<Runnable, Mono<PaymentDTO>> work) {
+        executed.increment();
+        AtomicBoolean committed = new AtomicBoolean();
+        // The pipeline has no fixed upper bound (retries, settlement), so the claim is kept alive while it runs
+        return Mono.using(() -> renewWhileRunning(redisKey, claim, key),
+                heartbeat -> Mono.defer(() -> work.apply(() -> committed.set(true))),
+                Disposable::dispose)
+            .onErrorResume(error -> committed.get()
+                ? store(redisKey, key, new Entry(FAILED, fingerprint, null, null, StoredError.of(error)))
+                    .then(Mono.error(error))
+                : release(redisKey, claim, key).then(Mono.error(error)))
+            .flatMap(payment -> store(redisKey, key, new Entry(COMPLETED, fingerprint, null, payment, null))
+                .thenReturn(new Outcome(payment, false)));
+    }
+
+    private Mono<Boolean> store(String redisKey, String key, Entry entry) {
+        completedResults.put(key, entry);
+        return redisTemplate.opsForValue().set(redisKey, write(entry), resultTimeToLive)
+            .onErrorResume(error -> {
+                log.warn("Failed to store result for idempotency key {} in Redis", key, error);
+                return Mono.just(false);
+            });
+    }
+
+    private Mono<Long> release(String redisKey, String claim, String key) {
+        return redisTemplate.execute(RELEASE_SCRIPT, List.of(redisKey), List.of(claim))
+            .next()
+            .onErrorResume(error -> {
+                log.warn("Failed to release idempotency key {}, it expires with the claim", key, error);
+                return Mono.just(0L);
+            });
+    }
+
+    private Disposable renewWhileRunning(String redisKey, String claim, String key) {
+        String timeToLiveMillis = String.valueOf(claimTimeToLive.toMillis());
+        return Flux.interval(claimRenewInterval)
+            .concatMap(tick -> redisTemplate.execute(RENEW_SCRIPT, List.of(redisKey), List.of(claim, timeToLiveMillis))
+                .next()
+                .doOnNext(renewed -> {
+                    if (renewed == 0) {
+                        log.warn("Lost the claim on idempotency key {} while processing", key);
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.warn("Failed to renew the claim on idempotency key {}", key, error);
+                    return Mono.empty();
+                }))
+            .subscribe();
+    }
+
+    // Another instance holds the claim: poll until it stores a result or gives the key up
+    private Mono<Outcome> awaitResult(String redisKey, String key, String fingerprint,
+                                      Function<Runnable, Mono<PaymentDTO>> work, long deadline) {
+        return redisTemplate.opsForValue().get(redisKey)
+            .map(this::read)
+            .flatMap(entry -> {
+                if (!PENDING.equals(entry.state())) {
+                    return replay(entry, fingerprint)
+                        .doOnNext(outcome -> completedResults.put(key, entry));
+                }
+                if (!entry.fingerprint().equals(fingerprint)) {
+                    return Mono.error(keyReused());
+                }
+                if (System.nanoTime() >= deadline) {
+                    conflicts.increment();
+                    return Mono.error(new ConflictException("IDEMPOTENCY_KEY_IN_PROGRESS",
+                        "A payment with this Idempotency-Key is still being processed, please retry later"));
+                }
+                return Mono.delay(pollInterval).then(awaitResult(redisKey, key, fingerprint, work, deadline));
+            })
+            .switchIfEmpty(Mono.defer(() -> claimAndRun(key, fingerprint, work, deadline)));
+    }
+
+    private Mono<Outcome> replay(Entry entry, String fingerprint) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            return Mono.error(keyReused());
+        }
+        replayed.increment();
+        if (FAILED.equals(entry.state())) {
+            return Mono.error(entry.error().toException());
+        }
+        return Mono.just(new Outcome(entry.payment(), true));
+    }
+
+    private ConflictException keyReused() {
+        conflicts.increment();
+        return new ConflictException("IDEMPOTENCY_KEY_REUSED",
+            "Idempotency-Key was already used for a different payment");
+    }
+
+    private static String fingerprint(PaymentDTO request) {
+        return request.getOrderId() + ":" + request.getAmount().stripTrailingZeros().toPlainString()
+            + ":" + request.getPaymentMethod();
+    }
+
+    private String write(Entry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotency entry", e);
+        }
+    }
+
+    private Entry read(String value) {
+        try {
+            return objectMapper.readValue(value, Entry.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize idempotency entry", e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("payment.idempotency.requests")
+            .description("Keyed payment submissions by how they were served")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * The payment for a key, and whether it was served from an earlier or concurrent attempt.
+     */
+    public record Outcome(PaymentDTO payment, boolean replayed) {
+    }
+
+    // claimId makes every pending claim's value unique to the attempt that wrote it
+    record Entry(String state, String fingerprint, String claimId, PaymentDTO payment, StoredError error) {
+    }
+
+    // Enough of a failure to answer a replay with the same status and error body as the original request
+    record StoredError(String errorCode, String message, int httpStatus) {
+
+        static StoredError of(Throwable error) {
+            if (error instanceof BaseException baseException) {
+                return new StoredError(baseException.getErrorCode(), baseException.getMessage(),
+                    baseException.getHttpStatus().value());
+            }
+            return new StoredError("INTERNAL_SERVER_ERROR", "An unexpected error occurred",
+                HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+
+        ReplayedFailureException toException() {
+            return new ReplayedFailureException(errorCode, message, HttpStatus.valueOf(httpStatus));
+        }
+    }
+
+    /**
+     * A failure stored under an idempotency key, raised again for a later request with that key.
+     */
+    public static class ReplayedFailureException extends BaseException {
+        ReplayedFailureException(String errorCode, String message, HttpStatus httpStatus) {
+            super(errorCode, message, httpStatus);
+        }
+    }
+
+    private record InFlight(String fingerprint, Mono<Outcome> outcome) {
+    }
+}
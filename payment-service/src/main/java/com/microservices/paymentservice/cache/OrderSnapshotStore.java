@@ -0,0 +1,69 @@
+package com.microservices.paymentservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.common.dto.OrderDTO;
+import com.microservices.common.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded local copy of the order fields payments are validated against, kept current from
+ * order events so most payments need no call to order-service.
+ */
+@Component
+public class OrderSnapshotStore {
+
+    private final Cache<Long, OrderSnapshot> snapshots;
+    private final Counter hits;
+    private final Counter misses;
+
+    public OrderSnapshotStore(MeterRegistry meterRegistry,
+                              @Value("${orders.snapshot.maximum-size:100000}") long maximumSize,
+                              @Value("${orders.snapshot.time-to-live:24h}") Duration timeToLive) {
+        this.snapshots = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "orderSnapshots");
+        this.hits = Counter.builder("orders.snapshot.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("orders.snapshot.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    public Optional<OrderSnapshot> find(Long orderId) {
+        OrderSnapshot snapshot = snapshots.getIfPresent(orderId);
+        (snapshot != null ? hits : misses).increment();
+        return Optional.ofNullable(snapshot);
+    }
+
+    public void put(OrderSnapshot snapshot) {
+        snapshots.put(snapshot.id(), snapshot);
+    }
+
+    /**
+     * Applies a status change to a known order. Unknown orders are ignored since the event
+     * carries no amount.
+     */
+    public void updateStatus(Long orderId, OrderStatus status) {
+        snapshots.asMap().computeIfPresent(orderId, (id, snapshot) -> snapshot.withStatus(status));
+    }
+
+    public record OrderSnapshot(Long id, BigDecimal amount, OrderStatus status) {
+
+        public static OrderSnapshot from(OrderDTO order) {
+            return new OrderSnapshot(order.getId(), order.getAmount(), order.getStatus());
+        }
+
+        public OrderSnapshot withStatus(OrderStatus newStatus) {
+            return new OrderSnapshot(id, amount, newStatus);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.microservices.paymentservice.client;
+
+import com.microservices.common.dto.OrderDTO;
+import com.microservices.common.enums.OrderStatus;
+import com.microservices.common.exception.ResourceNotFoundException;
+import com.microservices.common.security.IdentityHeaderCodec;
+import com.microservices.orderservice.grpc.GetOrderRequest;
+import com.microservices.orderservice.grpc.GetOrderResponse;
+import com.microservices.orderservice.grpc.GetOrdersRequest;
+import com.microservices.orderservice.grpc.GetOrdersResponse;
+import com.microservices.orderservice.grpc.Order;
+import com.microservices.orderservice.grpc.OrderServiceGrpc;
+import com.microservices.orderservice.grpc.UpdateOrderStatusRequest;
+import com.microservices.orderservice.grpc.UpdateOrderStatusResponse;
+import com.microservices.orderservice.grpc.UpdateOrderStatusesResponse;
+import io.grpc.Metadata;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Calls order-service over a long-lived gRPC channel. The channel address and keep-alive are
+ * configured under {@code grpc.client.order-service}; endpoints are resolved through Consul.
+ * Every call carries the service's signed identity in the {@code x-user-identity} metadata entry.
+ */
+@Component
+@ConditionalOnProperty(name = "order-service.client.transport", havingValue = "grpc")
+@RequiredArgsConstructor
+public class GrpcOrderServiceTransport implements OrderServiceTransport {
+
+    private static final Metadata.Key<String> IDENTITY_KEY =
+        Metadata.Key.of(IdentityHeaderCodec.HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    private final ServiceIdentity serviceIdentity;
+
+    @GrpcClient("order-service")
+    private OrderServiceGrpc.OrderServiceStub orderServiceStub;
+
+    @Value("${order-service.client.grpc.deadline:10s}")
+    private Duration deadline;
+
+    @Override
+    public Mono<OrderDTO> getOrder(Long id, String token) {
+        GetOrderRequest request = GetOrderRequest.newBuilder()
+            .setOrderId(id)
+            .setToken(token != null ? token : "")
+            .build();
+        return GrpcOrderServiceTransport.<GetOrderRequest, GetOrderResponse>call(
+                request, (req, observer) -> stub().getOrder(req, observer))
+            .flatMap(response -> response.getSuccess()
+                ? Mono.just(toOrderDTO(response.getOrder()))
+                : Mono.error(new ResourceNotFoundException("Order", id)));
+    }
+
+    @Override
+    public Mono<OrderDTO> updateOrderStatus(Long id, OrderStatus status, String token) {
+        UpdateOrderStatusRequest request = UpdateOrderStatusRequest.newBuilder()
+            .setOrderId(id)
+            .setStatus(com.microservices.orderservice.grpc.OrderStatus.valueOf(status.name()))
+            .setToken(token != null ? token : "")
+            .build();
+        return GrpcOrderServiceTransport.<UpdateOrderStatusRequest, UpdateOrderStatusResponse>call(
+                request, (req, observer) -> stub().updateOrderStatus(req, observer))
+            .flatMap(response -> response.getSuccess()
+                ? Mono.just(toOrderDTO(response.getOrder()))
+                : Mono.error(new ResourceNotFoundException("Order", id)));
+    }
+
+    @Override
+    public Mono<List<OrderDTO>> getOrders(Collection<Long> ids, String token) {
+        GetOrdersRequest request = GetOrdersRequest.newBuilder()
+            .addAllOrderIds(ids)
+            .setToken(token != null ? token : "")
+            .build();
+        return GrpcOrderServiceTransport.<GetOrdersRequest, GetOrdersResponse>call(
+                request, (req, observer) -> stub().getOrders(req, observer))
+            .map(response -> response.getOrdersList().stream()
+                .map(GrpcOrderServiceTransport::toOrderDTO)
+                .toList());
+    }
+
+    // Client-streaming call: one message per order, then half-close to have the server apply them together
+    @Override
+    public Mono<List<OrderDTO>> updateOrderStatuses(Collection<Long> ids, OrderStatus status, String token) {
+        com.microservices.orderservice.grpc.OrderStatus grpcStatus =
+            com.microservices.orderservice.grpc.OrderStatus.valueOf(status.name());
+        String callToken = token != null ? token : "";
+        return Mono.<UpdateOrderStatusesResponse>create(sink -> {
+            StreamObserver<UpdateOrderStatusRequest> requests = stub().updateOrderStatuses(
+                new ClientResponseObserver<UpdateOrderStatusRequest, UpdateOrderStatusesResponse>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<UpdateOrderStatusRequest> requestStream) {
+                        sink.onCancel(() -> requestStream.cancel("Cancelled by caller", null));
+                    }
+
+                    @Override
+                    public void onNext(UpdateOrderStatusesResponse response) {
+                        sink.success(response);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        sink.error(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        sink.success();
+                    }
+                });
+            for (Long id : ids) {
+                requests.onNext(UpdateOrderStatusRequest.newBuilder()
+                    .setOrderId(id)
+                    .setStatus(grpcStatus)
+                    .setToken(callToken)
+                    .build());
+            }
+            requests.onCompleted();
+        })
+        .map(response -> response.getOrdersList().stream()
+            .map(GrpcOrderServiceTransport::toOrderDTO)
+            .toList());
+    }
+
+    // The deadline is absolute, so it is taken per attempt rather than once per Mono
+    private OrderServiceGrpc.OrderServiceStub stub() {
+        Metadata headers = new Metadata();
+        headers.put(IDENTITY_KEY, serviceIdentity.headerValue());
+        return orderServiceStub
+            .withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+            .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    // Each subscription issues a new call, so retries re-send; cancelling the Mono cancels the RPC
+    private static <Q, R> Mono<R> call(Q request, BiConsumer<Q, StreamObserver<R>> method) {
+        return Mono.create(sink -> method.accept(request, new ClientResponseObserver<Q, R>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<Q> requestStream) {
+                sink.onCancel(() -> requestStream.cancel("Cancelled by caller", null));
+            }
+
+            @Override
+            public void onNext(R response) {
+                sink.success(response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                sink.error(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                sink.success();
+            }
+        }));
+    }
+
+    private static OrderDTO toOrderDTO(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+        dto.setCustomerId(order.getCustomerId());
+        dto.setAmount(new BigDecimal(order.getAmount()));
+        dto.setStatus(OrderStatus.valueOf(order.getStatus().name()));
+        dto.setDescription(order.getDescription().isEmpty() ? null : order.getDescription());
+        dto.setCreatedAt(toLocalDateTime(order.getCreatedAt()));
+        dto.setUpdatedAt(toLocalDateTime(order.getUpdatedAt()));
+        return dto;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochSecond) {
+        return epochSecond == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,76 @@
+package com.microservices.paymentservice.client;
+
+import com.microservices.common.dto.BulkStatusUpdateDTO;
+import com.microservices.common.dto.OrderDTO;
+import com.microservices.common.dto.StatusUpdateDTO;
+import com.microservices.common.enums.OrderStatus;
+import com.microservices.common.security.IdentityHeaderCodec;
+import com.microservices.paymentservice.config.SsoConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "order-service.client.transport", havingValue = "http", matchIfMissing = true)
+@RequiredArgsConstructor
+public class HttpOrderServiceTransport implements OrderServiceTransport {
+
+    private static final ParameterizedTypeReference<List<OrderDTO>> ORDER_LIST = new ParameterizedTypeReference<>() { };
+
+    private final WebClient orderServiceWebClient;
+    private final SsoConfig ssoConfig;
+    private final ServiceIdentity serviceIdentity;
+
+    @Override
+    public Mono<OrderDTO> getOrder(Long id, String token) {
+        return orderServiceWebClient
+            .get()
+            .uri("/orders/{id}", id)
+            .header(ssoConfig.getTokenHeader(), token)
+            .header(IdentityHeaderCodec.HEADER, serviceIdentity.headerValue())
+            .retrieve()
+            .bodyToMono(OrderDTO.class);
+    }
+
+    @Override
+    public Mono<OrderDTO> updateOrderStatus(Long id, OrderStatus status, String token) {
+        return orderServiceWebClient
+            .put()
+            .uri("/orders/{id}/status", id)
+            .header(ssoConfig.getTokenHeader(), token)
+            .header(IdentityHeaderCodec.HEADER, serviceIdentity.headerValue())
+            .bodyValue(new StatusUpdateDTO(status))
+            .retrieve()
+            .bodyToMono(OrderDTO.class);
+    }
+
+    @Override
+    public Mono<List<OrderDTO>> getOrders(Collection<Long> ids, String token) {
+        return orderServiceWebClient
+            .post()
+            .uri("/orders/lookup")
+            .header(ssoConfig.getTokenHeader(), token)
+            .header(IdentityHeaderCodec.HEADER, serviceIdentity.headerValue())
+            .bodyValue(List.copyOf(ids))
+            .retrieve()
+            .bodyToMono(ORDER_LIST);
+    }
+
+    @Override
+    public Mono<List<OrderDTO>> updateOrderStatuses(Collection<Long> ids, OrderStatus status, String token) {
+        return orderServiceWebClient
+            .put()
+            .uri("/orders/status")
+            .header(ssoConfig.getTokenHeader(), token)
+            .header(IdentityHeaderCodec.HEADER, serviceIdentity.headerValue())
+            .bodyValue(new BulkStatusUpdateDTO(List.copyOf(ids), status))
+            .retrieve()
+            .bodyToMono(ORDER_LIST);
+    }
+}
@@ -0,0 +1,30 @@
+package com.microservices.paymentservice.client;
+
+import com.microservices.common.dto.OrderDTO;
+import com.microservices.common.enums.OrderStatus;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Wire protocol used to reach order-service. Resilience policies are applied by
+ * {@link com.microservices.paymentservice.service.OrderServiceClient}, not by implementations.
+ * The implementation is chosen with {@code order-service.client.transport} ({@code http} or {@code grpc}).
+ */
+public interface OrderServiceTransport {
+
+    Mono<OrderDTO> getOrder(Long id, String token);
+
+    Mono<OrderDTO> updateOrderStatus(Long id, OrderStatus status, String token);
+
+    /**
+     * Fetches several orders in one round trip. Ids that do not exist are absent from the result.
+     */
+    Mono<List<OrderDTO>> getOrders(Collection<Long> ids, String token);
+
+    /**
+     * Moves every order to {@code status} in one round trip. Ids that do not exist are absent from the result.
+     */
+    Mono<List<OrderDTO>> updateOrderStatuses(Collection<Long> ids, OrderStatus status, String token);
+}
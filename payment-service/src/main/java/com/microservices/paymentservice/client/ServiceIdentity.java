@@ -0,0 +1,47 @@
+package com.microservices.paymentservice.client;
+
+import com.microservices.common.enums.UserRole;
+import com.microservices.common.security.IdentityHeaderCodec;
+import com.microservices.common.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Signed identity payment-service presents on its own calls to order-service. Marking an order PAID is an
+ * ADMIN operation there, so the service acts as itself rather than forwarding the paying user's identity.
+ * The value is re-signed once half its lifetime has passed, so order-service sees a stable value it can cache.
+ */
+@Component
+public class ServiceIdentity {
+
+    private final IdentityHeaderCodec identityHeaderCodec;
+    private final String serviceName;
+    private final long timeToLiveSeconds;
+    private volatile Signed current;
+
+    public ServiceIdentity(IdentityHeaderCodec identityHeaderCodec,
+                           @Value("${spring.application.name}") String serviceName,
+                           @Value("${sso.identity.time-to-live:5m}") Duration timeToLive) {
+        this.identityHeaderCodec = identityHeaderCodec;
+        this.serviceName = serviceName;
+        this.timeToLiveSeconds = timeToLive.toSeconds();
+    }
+
+    public String headerValue() {
+        long now = System.currentTimeMillis() / 1000;
+        Signed signed = current;
+        if (signed == null || now >= signed.renewAt()) {
+            long expiresAt = now + timeToLiveSeconds;
+            signed = new Signed(
+                identityHeaderCodec.encode(new UserPrincipal(serviceName, serviceName, UserRole.ADMIN, expiresAt)),
+                now + timeToLiveSeconds / 2);
+            current = signed;
+        }
+        return signed.value();
+    }
+
+    private record Signed(String value, long renewAt) {
+    }
+}
@@ -18,16 +18,23 @@ public class RabbitMQConfig {
     // Queue names
     public static final String ORDER_CREATED_QUEUE = "order.created.queue";
     public static final String ORDER_STATUS_UPDATED_QUEUE = "order.status.updated.queue";
+    public static final String ORDER_BATCH_CREATED_QUEUE = "order.batch.created.queue";
     public static final String PAYMENT_PROCESSED_QUEUE = "payment.processed.queue";
+    public static final String PAYMENT_BATCH_PROCESSED_QUEUE = "payment.batch.processed.queue";
 
     // Routing keys
     public static final String ORDER_CREATED_ROUTING_KEY = "order.created";
     public static final String ORDER_STATUS_UPDATED_ROUTING_KEY = "order.status.updated";
+    public static final String ORDER_BATCH_CREATED_ROUTING_KEY = "order.batch.created";
     public static final String PAYMENT_PROCESSED_ROUTING_KEY = "payment.processed";
+    public static final String PAYMENT_BATCH_PROCESSED_ROUTING_KEY = "payment.batch.processed";
+    // Broadcast only (no durable queue): consumed through per-instance queues, e.g. by the gateway cache
+    public static final String PAYMENT_STATUS_UPDATED_ROUTING_KEY = "payment.status.updated";
 
     @Bean
     public MessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+        // Class-level listeners are resolved from the type header, which is only trusted for event classes
+        return new Jackson2JsonMessageConverter("com.microservices.common.event");
     }
 
     @Bean
@@ -53,6 +60,11 @@ public class RabbitMQConfig {
         return QueueBuilder.durable(ORDER_STATUS_UPDATED_QUEUE).build();
     }
 
+    @Bean
+    public Queue orderBatchCreatedQueue() {
+        return QueueBuilder.durable(ORDER_BATCH_CREATED_QUEUE).build();
+    }
+
     @Bean
     public Binding orderCreatedBinding() {
         return BindingBuilder
@@ -69,6 +81,44 @@ public class RabbitMQConfig {
             .with(ORDER_STATUS_UPDATED_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding orderBatchCreatedBinding() {
+        return BindingBuilder
+            .bind(orderBatchCreatedQueue())
+            .to(orderExchange())
+            .with(ORDER_BATCH_CREATED_ROUTING_KEY);
+    }
+
+    // Per-instance queue so every payment-service replica keeps a complete order snapshot store
+    @Bean
+    public Queue orderSnapshotQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding orderSnapshotCreatedBinding() {
+        return BindingBuilder
+            .bind(orderSnapshotQueue())
+            .to(orderExchange())
+            .with(ORDER_CREATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding orderSnapshotBatchCreatedBinding() {
+        return BindingBuilder
+            .bind(orderSnapshotQueue())
+            .to(orderExchange())
+            .with(ORDER_BATCH_CREATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding orderSnapshotStatusUpdatedBinding() {
+        return BindingBuilder
+            .bind(orderSnapshotQueue())
+            .to(orderExchange())
+            .with(ORDER_STATUS_UPDATED_ROUTING_KEY);
+    }
+
     // Payment Exchange and Queues
     @Bean
     public TopicExchange paymentExchange() {
@@ -87,5 +137,17 @@ public class RabbitMQConfig {
             .to(paymentExchange())
             .with(PAYMENT_PROCESSED_ROUTING_KEY);
     }
-}
 
+    @Bean
+    public Queue paymentBatchProcessedQueue() {
+        return QueueBuilder.durable(PAYMENT_BATCH_PROCESSED_QUEUE).build();
+    }
+
+    @Bean
+    public Binding paymentBatchProcessedBinding() {
+        return BindingBuilder
+            .bind(paymentBatchProcessedQueue())
+            .to(paymentExchange())
+            .with(PAYMENT_BATCH_PROCESSED_ROUTING_KEY);
+    }
+}
@@ -1,21 +1,34 @@
 package com.microservices.paymentservice.config;
 
+import com.microservices.common.loadbalancer.InstanceLoadTracker;
+import com.microservices.common.loadbalancer.LatencyAwareLoadBalancerConfiguration;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 public class WebClientConfig {
 
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(@Value("${loadbalancer.latency-aware.decay:10s}") Duration decay,
+                                                   @Value("${loadbalancer.latency-aware.failure-penalty:1s}") Duration failurePenalty) {
+        return new InstanceLoadTracker(decay, failurePenalty);
+    }
+
     @Bean
     @LoadBalanced
     public WebClient.Builder webClientBuilder() {
@@ -32,10 +45,28 @@ public class WebClientConfig {
     }
 
     @Bean
-    public WebClient orderServiceWebClient(WebClient.Builder webClientBuilder) {
-        return webClientBuilder
+    public WebClient orderServiceWebClient(WebClient.Builder webClientBuilder, InstanceLoadTracker instanceLoadTracker) {
+        return webClientBuilder.clone()
             .baseUrl("http://order-service")
+            // Added after the load balancer's filter, so the request URL already names the chosen instance
+            .filter(trackInstanceLoad(instanceLoadTracker))
             .build();
     }
+
+    private static ExchangeFilterFunction trackInstanceLoad(InstanceLoadTracker instanceLoadTracker) {
+        return (request, next) -> Mono.defer(() -> {
+            InstanceLoadTracker.Call call = instanceLoadTracker.start(request.url().getHost(), request.url().getPort());
+            return next.exchange(request)
+                .doOnNext(response -> {
+                    if (response.statusCode().is5xxServerError()) {
+                        call.failed();
+                    } else {
+                        call.succeeded();
+                    }
+                })
+                .doOnError(error -> call.failed())
+                .doOnCancel(call::cancelled);
+        });
+    }
 }
 
@@ -4,6 +4,9 @@ import com.microservices.common.annotation.RequireRole;
 import com.microservices.common.dto.PaymentDTO;
 import com.microservices.common.dto.StatusUpdateDTO;
 import com.microservices.common.enums.UserRole;
+import com.microservices.common.exception.BusinessException;
+import com.microservices.common.security.UserPrincipal;
+import com.microservices.paymentservice.cache.IdempotencyStore;
 import com.microservices.paymentservice.service.PaymentService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -22,6 +25,7 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/payments")
@@ -29,25 +33,34 @@ import java.util.Objects;
 @Validated
 public class PaymentController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final String ANONYMOUS_CALLER = "anonymous";
+
     private final PaymentService paymentService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     @RequireRole({UserRole.USER, UserRole.ADMIN})
     public Mono<ResponseEntity<PaymentDTO>> processPayment(
             @Valid @RequestBody PaymentDTO paymentDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             HttpServletRequest request) {
         String token = (String) request.getAttribute("authToken");
-        return paymentService.processPayment(paymentDTO, token)
-            .map(payment -> ResponseEntity.status(HttpStatus.CREATED).body(payment));
+        return idempotent(request, idempotencyKey, paymentDTO,
+            onSettlementStarted -> paymentService.processPayment(paymentDTO, token, onSettlementStarted));
     }
 
     @PostMapping("/backpressure")
     public Mono<ResponseEntity<PaymentDTO>> processPaymentWithBackpressure(
             @Valid @RequestBody PaymentDTO paymentDTO,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             HttpServletRequest request) {
         String token = (String) request.getAttribute("authToken");
-        return paymentService.processPaymentWithBackpressure(paymentDTO, token)
-            .map(payment -> ResponseEntity.status(HttpStatus.CREATED).body(payment));
+        return idempotent(request, idempotencyKey, paymentDTO,
+            onSettlementStarted -> paymentService.processPaymentWithBackpressure(paymentDTO, token,
+                onSettlementStarted));
     }
 
     @GetMapping("/{id}")
@@ -69,8 +82,7 @@ public class PaymentController {
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @RequireRole({UserRole.ADMIN})
     public Flux<PaymentDTO> getAllPaymentsStreaming() {
-        return paymentService.getAllPaymentsStreaming()
-            .delayElements(java.time.Duration.ofMillis(100));
+        return paymentService.getAllPaymentsStreaming();
     }
 
     @PutMapping("/{id}/status")
@@ -91,5 +103,25 @@ public class PaymentController {
         String token = (String) request.getAttribute("authToken");
         return paymentService.processPaymentsBatch(paymentDTOs, token);
     }
-}
 
+    // Replays are answered from the store and never reach the payment pipeline or the admission limiter.
+    // Keys are scoped to the caller, so one user's key can neither block nor replay another user's payment.
+    // Failures once settlement has started are kept under the key, so a retry cannot charge a second time.
+    private Mono<ResponseEntity<PaymentDTO>> idempotent(HttpServletRequest request, String idempotencyKey,
+                                                        PaymentDTO paymentDTO,
+                                                        Function<Runnable, Mono<PaymentDTO>> work) {
+        if (idempotencyKey == null) {
+            return work.apply(() -> { }).map(payment -> ResponseEntity.status(HttpStatus.CREATED).body(payment));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return Mono.error(new BusinessException("INVALID_IDEMPOTENCY_KEY",
+                IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"));
+        }
+        UserPrincipal principal = (UserPrincipal) request.getAttribute(UserPrincipal.REQUEST_ATTRIBUTE);
+        String caller = principal != null && principal.userId() != null ? principal.userId() : ANONYMOUS_CALLER;
+        return idempotencyStore.execute(caller, idempotencyKey, paymentDTO, work)
+            .map(outcome -> ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                .body(outcome.payment()));
+    }
+}
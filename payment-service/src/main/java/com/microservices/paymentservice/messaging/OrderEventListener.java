@@ -1,5 +1,6 @@
 package com.microservices.paymentservice.messaging;
 
+import com.microservices.common.event.OrderBatchCreatedEvent;
 import com.microservices.common.event.OrderCreatedEvent;
 import com.microservices.common.event.OrderStatusUpdatedEvent;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,12 @@ public class OrderEventListener {
         // For example, send notification, update cache, etc.
     }
 
+    @RabbitListener(queues = "${spring.rabbitmq.listener.simple.order-batch-created-queue:order.batch.created.queue}")
+    public void handleOrderBatchCreated(OrderBatchCreatedEvent event) {
+        log.info("Received order batch created event: eventId={}, orders={}",
+            event.getEventId(), event.getOrders().size());
+    }
+
     @RabbitListener(queues = "${spring.rabbitmq.listener.simple.order-status-updated-queue:order.status.updated.queue}")
     public void handleOrderStatusUpdated(OrderStatusUpdatedEvent event) {
         log.info("Received order status updated event: orderId={}, oldStatus={}, newStatus={}",
@@ -28,4 +35,3 @@ public class OrderEventListener {
         // For example, cancel payment if order is cancelled
     }
 }
-
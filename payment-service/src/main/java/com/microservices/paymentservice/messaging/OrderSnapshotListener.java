@@ -0,0 +1,47 @@
+package com.microservices.paymentservice.messaging;
+
+import com.microservices.common.enums.OrderStatus;
+import com.microservices.common.event.OrderBatchCreatedEvent;
+import com.microservices.common.event.OrderCreatedEvent;
+import com.microservices.common.event.OrderStatusUpdatedEvent;
+import com.microservices.paymentservice.cache.OrderSnapshotStore;
+import com.microservices.paymentservice.cache.OrderSnapshotStore.OrderSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps this instance's {@link OrderSnapshotStore} current. Reads a per-instance queue, so every
+ * payment-service replica sees every order creation and status change rather than a share of them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@RabbitListener(queues = "#{orderSnapshotQueue.name}")
+public class OrderSnapshotListener {
+
+    private final OrderSnapshotStore orderSnapshotStore;
+
+    @RabbitHandler
+    public void handleOrderCreated(OrderCreatedEvent event) {
+        storeSnapshot(event);
+    }
+
+    @RabbitHandler
+    public void handleOrderBatchCreated(OrderBatchCreatedEvent event) {
+        event.getOrders().forEach(this::storeSnapshot);
+    }
+
+    @RabbitHandler
+    public void handleOrderStatusUpdated(OrderStatusUpdatedEvent event) {
+        log.debug("Updating order snapshot: orderId={}, newStatus={}", event.getOrderId(), event.getNewStatus());
+        orderSnapshotStore.updateStatus(event.getOrderId(), event.getNewStatus());
+    }
+
+    // Orders are always created PENDING
+    private void storeSnapshot(OrderCreatedEvent event) {
+        orderSnapshotStore.put(new OrderSnapshot(event.getOrderId(), event.getAmount(), OrderStatus.PENDING));
+    }
+}
@@ -1,6 +1,8 @@
 package com.microservices.paymentservice.messaging;
 
+import com.microservices.common.event.PaymentBatchProcessedEvent;
 import com.microservices.common.event.PaymentProcessedEvent;
+import com.microservices.common.event.PaymentStatusUpdatedEvent;
 import com.microservices.paymentservice.config.RabbitMQConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,5 +30,34 @@ public class PaymentEventPublisher {
                 event.getPaymentId(), event.getOrderId(), e);
         }
     }
-}
 
+    public void publishPaymentBatchProcessed(PaymentBatchProcessedEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(
+                RabbitMQConfig.PAYMENT_EXCHANGE,
+                RabbitMQConfig.PAYMENT_BATCH_PROCESSED_ROUTING_KEY,
+                event
+            );
+            log.info("Published payment batch processed event: eventId={}, payments={}",
+                event.getEventId(), event.getPayments().size());
+        } catch (Exception e) {
+            log.error("Failed to publish payment batch processed event: eventId={}, payments={}",
+                event.getEventId(), event.getPayments().size(), e);
+        }
+    }
+
+    public void publishPaymentStatusUpdated(PaymentStatusUpdatedEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(
+                RabbitMQConfig.PAYMENT_EXCHANGE,
+                RabbitMQConfig.PAYMENT_STATUS_UPDATED_ROUTING_KEY,
+                event
+            );
+            log.info("Published payment status updated event: paymentId={}, oldStatus={}, newStatus={}",
+                event.getPaymentId(), event.getOldStatus(), event.getNewStatus());
+        } catch (Exception e) {
+            log.error("Failed to publish payment status updated event: paymentId={}",
+                event.getPaymentId(), e);
+        }
+    }
+}
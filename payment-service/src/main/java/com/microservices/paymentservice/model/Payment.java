@@ -2,6 +2,7 @@ package com.microservices.paymentservice.model;
 
 import com.microservices.common.enums.PaymentMethod;
 import com.microservices.common.enums.PaymentStatus;
+import com.microservices.common.id.IdGenerators;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -48,7 +49,7 @@ public class Payment {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         if (transactionId == null) {
-            transactionId = "TXN-" + System.currentTimeMillis() + "-" + (int)(Math.random() * 10000);
+            transactionId = generateTransactionId();
         }
     }
 
@@ -63,5 +64,10 @@ public class Payment {
         this.paymentMethod = paymentMethod;
         this.status = status;
     }
+
+    // Time-ordered and unique across instances, so concurrent inserts never hit the unique constraint
+    public static String generateTransactionId() {
+        return "TXN-" + IdGenerators.get().nextIdString();
+    }
 }
 
@@ -0,0 +1,17 @@
+package com.microservices.paymentservice.processor;
+
+import com.microservices.common.enums.PaymentMethod;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Settles payments for one or more payment methods. Implementations must not block the
+ * subscribing thread; the returned {@link Mono} completes once the outcome is known.
+ */
+public interface PaymentProcessor {
+
+    Set<PaymentMethod> supportedMethods();
+
+    Mono<SettlementResult> settle(SettlementRequest request);
+}
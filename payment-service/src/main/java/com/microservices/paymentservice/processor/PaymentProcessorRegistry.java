@@ -0,0 +1,38 @@
+package com.microservices.paymentservice.processor;
+
+import com.microservices.common.enums.PaymentMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the processor for each payment method. Processors are consulted in {@code @Order};
+ * the first one supporting a method wins, so specific processors override the simulated fallback.
+ */
+@Slf4j
+@Component
+public class PaymentProcessorRegistry {
+
+    private final Map<PaymentMethod, PaymentProcessor> processors = new EnumMap<>(PaymentMethod.class);
+
+    public PaymentProcessorRegistry(List<PaymentProcessor> orderedProcessors) {
+        for (PaymentProcessor processor : orderedProcessors) {
+            for (PaymentMethod method : processor.supportedMethods()) {
+                if (processors.putIfAbsent(method, processor) == null) {
+                    log.info("Payment method {} settled by {}", method, processor.getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    public PaymentProcessor forMethod(PaymentMethod method) {
+        PaymentProcessor processor = processors.get(method);
+        if (processor == null) {
+            throw new IllegalStateException("No payment processor registered for " + method);
+        }
+        return processor;
+    }
+}
@@ -0,0 +1,63 @@
+package com.microservices.paymentservice.processor;
+
+import com.microservices.common.enums.PaymentMethod;
+import com.microservices.paymentservice.model.Payment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Settles persisted payments through the processor registered for their method and records
+ * {@code payment.settlement.latency} per method and outcome. Only a decline returned by the
+ * processor is a failed settlement; errors and timeouts leave the outcome unknown, since the
+ * charge may have gone through, and are reported as {@link SettlementResult#unknown} rather
+ * than an error signal.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentSettlementEngine {
+
+    private final PaymentProcessorRegistry processorRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.settlement.timeout:30s}")
+    private Duration settlementTimeout;
+
+    public Mono<SettlementResult> settle(Payment payment) {
+        SettlementRequest request = new SettlementRequest(
+            payment.getId(),
+            payment.getOrderId(),
+            payment.getAmount(),
+            payment.getPaymentMethod(),
+            payment.getTransactionId()
+        );
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return processorRegistry.forMethod(request.paymentMethod())
+                .settle(request)
+                .timeout(settlementTimeout)
+                .onErrorResume(error -> {
+                    log.error("Settlement outcome unknown for paymentId: {}", request.paymentId(), error);
+                    return Mono.just(SettlementResult.unknown(error.getMessage()));
+                })
+                .doOnNext(result -> settlementTimer(request.paymentMethod(), result)
+                    .record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    private Timer settlementTimer(PaymentMethod method, SettlementResult result) {
+        return Timer.builder("payment.settlement.latency")
+            .description("Time from settlement request to processor outcome")
+            .tag("method", method.name())
+            .tag("outcome", result.status().name())
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,9 @@
+package com.microservices.paymentservice.processor;
+
+import com.microservices.common.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+
+public record SettlementRequest(Long paymentId, Long orderId, BigDecimal amount,
+                                PaymentMethod paymentMethod, String transactionId) {
+}
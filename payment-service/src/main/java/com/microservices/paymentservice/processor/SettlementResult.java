@@ -0,0 +1,30 @@
+package com.microservices.paymentservice.processor;
+
+import com.microservices.common.enums.PaymentStatus;
+
+/**
+ * Outcome of a settlement attempt. {@link #failed} is an explicit decline by the processor;
+ * {@link #unknown} means no answer arrived, so the charge may or may not have gone through.
+ */
+public record SettlementResult(PaymentStatus status, String reason) {
+
+    public static SettlementResult completed() {
+        return new SettlementResult(PaymentStatus.COMPLETED, null);
+    }
+
+    public static SettlementResult failed(String reason) {
+        return new SettlementResult(PaymentStatus.FAILED, reason);
+    }
+
+    public static SettlementResult unknown(String reason) {
+        return new SettlementResult(PaymentStatus.PENDING, reason);
+    }
+
+    public boolean isCompleted() {
+        return status == PaymentStatus.COMPLETED;
+    }
+
+    public boolean isUnknown() {
+        return status == PaymentStatus.PENDING;
+    }
+}
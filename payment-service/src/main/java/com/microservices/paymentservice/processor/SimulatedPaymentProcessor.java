@@ -0,0 +1,34 @@
+package com.microservices.paymentservice.processor;
+
+import com.microservices.common.enums.PaymentMethod;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fallback processor that approves every payment after a configurable delay. The delay runs on
+ * the timer scheduler, so no thread is held while it elapses.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class SimulatedPaymentProcessor implements PaymentProcessor {
+
+    @Value("${payment.processor.simulated.latency:100ms}")
+    private Duration latency;
+
+    @Override
+    public Set<PaymentMethod> supportedMethods() {
+        return EnumSet.allOf(PaymentMethod.class);
+    }
+
+    @Override
+    public Mono<SettlementResult> settle(SettlementRequest request) {
+        return Mono.delay(latency).thenReturn(SettlementResult.completed());
+    }
+}
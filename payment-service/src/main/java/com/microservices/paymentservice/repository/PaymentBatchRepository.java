@@ -0,0 +1,92 @@
+package com.microservices.paymentservice.repository;
+
+import com.microservices.paymentservice.model.Payment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk write path for batch payment runs. Identity ids rule out JDBC batching through Hibernate,
+ * so inserts go out as one multi-row {@code INSERT ... RETURNING} statement per chunk.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentBatchRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO payments (order_id, amount, payment_method, status, transaction_id, created_at, updated_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_STATUS_SQL =
+        "UPDATE payments SET status = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${payment.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    /**
+     * Inserts all payments and assigns their generated ids. Timestamps and transaction ids are
+     * filled in here, since entity lifecycle callbacks do not run on this path.
+     */
+    @Transactional
+    public List<Payment> insertAll(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return payments;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Payment> byTransactionId = new HashMap<>();
+        for (Payment payment : payments) {
+            payment.setTransactionId(Payment.generateTransactionId());
+            payment.setCreatedAt(now);
+            payment.setUpdatedAt(now);
+            byTransactionId.put(payment.getTransactionId(), payment);
+        }
+
+        for (int from = 0; from < payments.size(); from += jdbcBatchSize) {
+            List<Payment> rows = payments.subList(from, Math.min(from + jdbcBatchSize, payments.size()));
+            String sql = INSERT_SQL + String.join(", ", Collections.nCopies(rows.size(), INSERT_ROW))
+                + " RETURNING id, transaction_id";
+            // Ids are matched back by transaction id, which does not rely on RETURNING row order
+            jdbcTemplate.query(sql, ps -> {
+                int index = 1;
+                for (Payment payment : rows) {
+                    ps.setLong(index++, payment.getOrderId());
+                    ps.setBigDecimal(index++, payment.getAmount());
+                    ps.setString(index++, payment.getPaymentMethod().name());
+                    ps.setString(index++, payment.getStatus().name());
+                    ps.setString(index++, payment.getTransactionId());
+                    ps.setTimestamp(index++, Timestamp.valueOf(payment.getCreatedAt()));
+                    ps.setTimestamp(index++, Timestamp.valueOf(payment.getUpdatedAt()));
+                }
+            }, rs -> {
+                byTransactionId.get(rs.getString("transaction_id")).setId(rs.getLong("id"));
+            });
+        }
+        return payments;
+    }
+
+    /**
+     * Writes the in-memory status and {@code updatedAt} of each payment in batched statements.
+     */
+    @Transactional
+    public void updateStatuses(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, payments, jdbcBatchSize, (ps, payment) -> {
+            ps.setString(1, payment.getStatus().name());
+            ps.setTimestamp(2, Timestamp.valueOf(payment.getUpdatedAt()));
+            ps.setLong(3, payment.getId());
+        });
+    }
+}
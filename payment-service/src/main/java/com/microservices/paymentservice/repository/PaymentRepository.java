@@ -1,13 +1,25 @@
 package com.microservices.paymentservice.repository;
 
+import com.microservices.common.enums.PaymentStatus;
 import com.microservices.paymentservice.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByOrderId(Long orderId);
-}
 
+    // Single UPDATE statement, avoiding the select-then-merge of save() on a detached entity
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = :status, p.updatedAt = :updatedAt WHERE p.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") PaymentStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+}
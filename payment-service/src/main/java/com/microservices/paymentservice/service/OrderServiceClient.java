@@ -1,67 +1,321 @@
 package com.microservices.paymentservice.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.microservices.common.dto.OrderDTO;
 import com.microservices.common.dto.StatusUpdateDTO;
-import com.microservices.paymentservice.config.SsoConfig;
+import com.microservices.common.enums.OrderStatus;
+import com.microservices.common.loadbalancer.TriedInstances;
+import com.microservices.paymentservice.client.OrderServiceTransport;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import io.github.resilience4j.reactor.retry.RetryOperator;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryRegistry;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OrderServiceClient {
 
-    private final WebClient orderServiceWebClient;
-    private final SsoConfig ssoConfig;
+    private final OrderServiceTransport orderServiceTransport;
     private final CircuitBreakerRegistry circuitBreakerRegistry;
     private final RetryRegistry retryRegistry;
 
+    // Concurrent getOrder calls for the same order and caller share one outbound request
+    private final Map<OrderKey, Mono<OrderDTO>> inFlightOrders = new ConcurrentHashMap<>();
+    private final Cache<Long, CachedOrder> recentOrders;
+
+    private final Counter remoteRequests;
+    private final Counter coalescedRequests;
+    private final Counter cacheHits;
+
+    // Hedged getOrder: a second attempt after the p95 latency, limited to maxHedgePercent of requests
+    private final boolean hedgingEnabled;
+    private final long minHedgeDelayNanos;
+    private final long maxHedgeDelayNanos;
+    private final long maxHedgePercent;
+    private final AtomicLong hedgeBudget = new AtomicLong();
+    private final Timer attemptLatency;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private volatile HedgeDelay hedgeDelay = new HedgeDelay(Long.MIN_VALUE, 0);
+
+    public OrderServiceClient(OrderServiceTransport orderServiceTransport,
+                              CircuitBreakerRegistry circuitBreakerRegistry,
+                              RetryRegistry retryRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${order-service.client.cache.enabled:false}") boolean cacheEnabled,
+                              @Value("${order-service.client.cache.time-to-live:2s}") Duration cacheTimeToLive,
+                              @Value("${order-service.client.cache.maximum-size:10000}") long cacheMaximumSize,
+                              @Value("${order-service.client.hedge.enabled:false}") boolean hedgingEnabled,
+                              @Value("${order-service.client.hedge.min-delay:20ms}") Duration minHedgeDelay,
+                              @Value("${order-service.client.hedge.max-delay:500ms}") Duration maxHedgeDelay,
+                              @Value("${order-service.client.hedge.max-percent:10}") long maxHedgePercent) {
+        this.orderServiceTransport = orderServiceTransport;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.retryRegistry = retryRegistry;
+        this.recentOrders = cacheEnabled
+            ? Caffeine.newBuilder().expireAfterWrite(cacheTimeToLive).maximumSize(cacheMaximumSize).build()
+            : null;
+
+        this.remoteRequests = requestCounter(meterRegistry, "remote");
+        this.coalescedRequests = requestCounter(meterRegistry, "coalesced");
+        this.cacheHits = requestCounter(meterRegistry, "cache_hit");
+        Gauge.builder("order.client.requests.in-flight", inFlightOrders, Map::size)
+            .description("Distinct getOrder calls to order-service currently in flight")
+            .register(meterRegistry);
+
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.maxHedgeDelayNanos = maxHedgeDelay.toNanos();
+        this.maxHedgePercent = maxHedgePercent;
+        this.attemptLatency = Timer.builder("order.client.get-order.latency")
+            .description("Latency of single getOrder attempts to order-service")
+            .publishPercentiles(0.95)
+            .distributionStatisticExpiry(Duration.ofMinutes(1))
+            .register(meterRegistry);
+        this.hedgesSent = Counter.builder("order.client.hedges").tag("result", "sent").register(meterRegistry);
+        this.hedgesWon = Counter.builder("order.client.hedges").tag("result", "won").register(meterRegistry);
+    }
+
     public Mono<OrderDTO> getOrder(Long id, String token) {
+        return Mono.defer(() -> {
+            if (recentOrders != null) {
+                CachedOrder cached = recentOrders.getIfPresent(id);
+                if (cached != null && Objects.equals(cached.token(), token)) {
+                    cacheHits.increment();
+                    return Mono.just(cached.order());
+                }
+            }
+
+            OrderKey key = new OrderKey(id, token);
+            AtomicReference<Mono<OrderDTO>> self = new AtomicReference<>();
+            Mono<OrderDTO> call = fetchOrder(id, token)
+                .doOnNext(order -> {
+                    if (recentOrders != null) {
+                        recentOrders.put(id, new CachedOrder(token, order));
+                    }
+                })
+                .doFinally(signal -> inFlightOrders.remove(key, self.get()))
+                .cache();
+            self.set(call);
+
+            Mono<OrderDTO> existing = inFlightOrders.putIfAbsent(key, call);
+            if (existing != null) {
+                coalescedRequests.increment();
+                return existing;
+            }
+            remoteRequests.increment();
+            return call;
+        });
+    }
+
+    public Mono<OrderDTO> updateOrderStatus(Long id, StatusUpdateDTO statusUpdate, String token) {
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("orderService");
         Retry retry = retryRegistry.retry("orderService");
-        
-        return orderServiceWebClient
-            .get()
-            .uri("/orders/{id}", id)
-            .header(ssoConfig.getTokenHeader(), token)
-            .retrieve()
-            .bodyToMono(OrderDTO.class)
+
+        return orderServiceTransport.updateOrderStatus(id, statusUpdate.getOrderStatus(), token)
             .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
             .transformDeferred(RetryOperator.of(retry))
-            .doOnError(error -> log.error("Failed to fetch order with id: {}", id, error))
+            .doOnError(error -> log.error("Failed to update order status for id: {}", id, error))
             .onErrorResume(error -> {
-                log.warn("Circuit breaker or retry exhausted for getOrder, id: {}", id, error);
+                log.warn("Circuit breaker or retry exhausted for updateOrderStatus, id: {}", id, error);
                 return Mono.error(new RuntimeException("Order service is currently unavailable. Please try again later.", error));
+            })
+            .doFinally(signal -> {
+                if (recentOrders != null) {
+                    recentOrders.invalidate(id);
+                }
             });
     }
 
-    public Mono<OrderDTO> updateOrderStatus(Long id, StatusUpdateDTO statusUpdate, String token) {
+    public Mono<List<OrderDTO>> getOrders(Collection<Long> ids, String token) {
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("orderService");
         Retry retry = retryRegistry.retry("orderService");
-        
-        return orderServiceWebClient
-            .put()
-            .uri("/orders/{id}/status", id)
-            .header(ssoConfig.getTokenHeader(), token)
-            .bodyValue(statusUpdate)
-            .retrieve()
-            .bodyToMono(OrderDTO.class)
+
+        return orderServiceTransport.getOrders(ids, token)
             .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
             .transformDeferred(RetryOperator.of(retry))
-            .doOnError(error -> log.error("Failed to update order status for id: {}", id, error))
+            .doOnError(error -> log.error("Failed to fetch {} orders", ids.size(), error))
             .onErrorResume(error -> {
-                log.warn("Circuit breaker or retry exhausted for updateOrderStatus, id: {}", id, error);
+                log.warn("Circuit breaker or retry exhausted for getOrders, {} ids", ids.size(), error);
                 return Mono.error(new RuntimeException("Order service is currently unavailable. Please try again later.", error));
             });
     }
-}
 
+    public Mono<List<OrderDTO>> updateOrderStatuses(Collection<Long> ids, OrderStatus status, String token) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("orderService");
+        Retry retry = retryRegistry.retry("orderService");
+
+        return orderServiceTransport.updateOrderStatuses(ids, status, token)
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+            .transformDeferred(RetryOperator.of(retry))
+            .doOnError(error -> log.error("Failed to update status of {} orders", ids.size(), error))
+            .onErrorResume(error -> {
+                log.warn("Circuit breaker or retry exhausted for updateOrderStatuses, {} ids", ids.size(), error);
+                return Mono.error(new RuntimeException("Order service is currently unavailable. Please try again later.", error));
+            })
+            .doFinally(signal -> {
+                if (recentOrders != null) {
+                    recentOrders.invalidateAll(ids);
+                }
+            });
+    }
+
+    private Mono<OrderDTO> fetchOrder(Long id, String token) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("orderService");
+        Retry retry = retryRegistry.retry("orderService");
+
+        Mono<OrderDTO> call = hedgingEnabled
+            ? hedged(() -> orderServiceTransport.getOrder(id, token))
+            : orderServiceTransport.getOrder(id, token);
+        return call
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+            .transformDeferred(RetryOperator.of(retry))
+            .doOnError(error -> log.error("Failed to fetch order with id: {}", id, error))
+            .onErrorResume(error -> {
+                log.warn("Circuit breaker or retry exhausted for getOrder, id: {}", id, error);
+                return Mono.error(new RuntimeException("Order service is currently unavailable. Please try again later.", error));
+            });
+    }
+
+    /**
+     * Runs the attempt and, if it has not answered within the hedge delay, a second one that the load
+     * balancer sends to another instance. The first value wins and the other attempt is cancelled; an
+     * error only surfaces once no attempt is left running.
+     */
+    private Mono<OrderDTO> hedged(Supplier<Mono<OrderDTO>> attempt) {
+        return Mono.create(sink -> {
+            Context context = Context.of(sink.contextView()).put(TriedInstances.CONTEXT_KEY, new TriedInstances());
+            Disposable.Composite attempts = Disposables.composite();
+            AtomicInteger running = new AtomicInteger(1);
+            AtomicBoolean finished = new AtomicBoolean();
+            sink.onDispose(attempts);
+            depositHedgeBudget();
+
+            BiConsumer<Optional<OrderDTO>, Boolean> onValue = (order, isHedge) -> {
+                if (finished.compareAndSet(false, true)) {
+                    if (isHedge) {
+                        hedgesWon.increment();
+                    }
+                    sink.success(order.orElse(null));
+                    attempts.dispose();
+                }
+            };
+            Consumer<Throwable> onError = error -> {
+                if (running.decrementAndGet() == 0 && finished.compareAndSet(false, true)) {
+                    sink.error(error);
+                }
+            };
+
+            attempts.add(timedAttempt(attempt, context).subscribe(order -> onValue.accept(order, false), onError));
+            attempts.add(Mono.delay(Duration.ofNanos(currentHedgeDelayNanos())).subscribe(tick -> {
+                if (!withdrawHedgeBudget()) {
+                    return;
+                }
+                int current;
+                do {
+                    current = running.get();
+                    // Already answered, or the first attempt failed and its error was delivered
+                    if (current == 0 || finished.get()) {
+                        hedgeBudget.addAndGet(100);
+                        return;
+                    }
+                } while (!running.compareAndSet(current, current + 1));
+                hedgesSent.increment();
+                attempts.add(timedAttempt(attempt, context).subscribe(order -> onValue.accept(order, true), onError));
+            }));
+        });
+    }
+
+    private Mono<Optional<OrderDTO>> timedAttempt(Supplier<Mono<OrderDTO>> attempt, Context context) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.get()
+                .doOnSuccess(order -> attemptLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        })
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .contextWrite(context);
+    }
+
+    // p95 of recent attempts, clamped to [min-delay, max-delay]; recomputed at most once a second
+    private long currentHedgeDelayNanos() {
+        long now = System.nanoTime();
+        HedgeDelay current = hedgeDelay;
+        if (now - current.computedAtNanos() < TimeUnit.SECONDS.toNanos(1)) {
+            return current.delayNanos();
+        }
+        double p95 = Double.NaN;
+        for (ValueAtPercentile percentile : attemptLatency.takeSnapshot().percentileValues()) {
+            p95 = percentile.value(TimeUnit.NANOSECONDS);
+        }
+        long delay = Double.isNaN(p95) || p95 <= 0
+            ? maxHedgeDelayNanos
+            : Math.max(minHedgeDelayNanos, Math.min(maxHedgeDelayNanos, (long) p95));
+        hedgeDelay = new HedgeDelay(now, delay);
+        return delay;
+    }
+
+    // Each request earns maxHedgePercent hundredths of a hedge; a burst of up to 10 hedges can be saved
+    private void depositHedgeBudget() {
+        hedgeBudget.updateAndGet(budget -> Math.min(budget + maxHedgePercent, 1000));
+    }
+
+    private boolean withdrawHedgeBudget() {
+        long budget;
+        do {
+            budget = hedgeBudget.get();
+            if (budget < 100) {
+                return false;
+            }
+        } while (!hedgeBudget.compareAndSet(budget, budget - 100));
+        return true;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("order.client.requests")
+            .description("getOrder calls by how they were served")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record OrderKey(Long id, String token) {
+    }
+
+    private record HedgeDelay(long computedAtNanos, long delayNanos) {
+    }
+
+    // The token is kept so a cached order is only served back to the caller that fetched it
+    private record CachedOrder(String token, OrderDTO order) {
+    }
+}
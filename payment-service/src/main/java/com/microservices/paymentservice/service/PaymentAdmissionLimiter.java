@@ -0,0 +1,208 @@
+package com.microservices.paymentservice.service;
+
+import com.microservices.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of the payment pipeline: at most {@code max-in-flight} payments run
+ * at once, up to {@code max-queue-size} more wait in FIFO order for at most {@code max-wait}, and
+ * everything beyond that is rejected immediately with {@link ServiceOverloadedException}.
+ * Waiting holds no thread.
+ */
+@Component
+public class PaymentAdmissionLimiter {
+
+    private final int maxInFlight;
+    private final int maxQueueSize;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedWaitTimeout;
+
+    public PaymentAdmissionLimiter(MeterRegistry meterRegistry,
+                                   @Value("${payment.admission.max-in-flight:20}") int maxInFlight,
+                                   @Value("${payment.admission.max-queue-size:100}") int maxQueueSize,
+                                   @Value("${payment.admission.max-wait:2s}") Duration maxWait,
+                                   @Value("${payment.admission.retry-after:1s}") Duration retryAfter) {
+        this.maxInFlight = maxInFlight;
+        this.maxQueueSize = maxQueueSize;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        Gauge.builder("payment.admission.in-flight", inFlight, AtomicInteger::get)
+            .description("Payments currently admitted to the pipeline")
+            .register(meterRegistry);
+        Gauge.builder("payment.admission.queue.depth", queueDepth, AtomicInteger::get)
+            .description("Payments waiting for admission")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("payment.admission.wait")
+            .description("Time admitted payments spent waiting in the queue")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("payment.admission.rejected")
+            .tag("reason", "queue_full")
+            .register(meterRegistry);
+        this.rejectedWaitTimeout = Counter.builder("payment.admission.rejected")
+            .tag("reason", "wait_timeout")
+            .register(meterRegistry);
+    }
+
+    public <T> Mono<T> admit(Mono<T> work) {
+        return Mono.defer(() -> {
+            // Only skip the queue when nobody is waiting, so queued payments keep FIFO order
+            if (queueDepth.get() == 0 && tryAcquire()) {
+                waitTimer.record(Duration.ZERO);
+                return withPermit(work, new AtomicBoolean());
+            }
+            if (queueDepth.incrementAndGet() > maxQueueSize) {
+                queueDepth.decrementAndGet();
+                rejectedQueueFull.increment();
+                return Mono.error(overloaded());
+            }
+
+            Waiter waiter = new Waiter();
+            waiters.offer(waiter);
+            // A permit may have been released between the failed acquire and the offer
+            drain();
+            // A cancel racing the grant can reach both the cancel hook and the work's doFinally
+            AtomicBoolean released = new AtomicBoolean();
+            return waiter.admission()
+                .doOnCancel(() -> {
+                    // Cancelled after the permit was handed over but before the work started
+                    if (!waiter.abandon() && waiter.isGranted()) {
+                        releaseOnce(released);
+                    }
+                })
+                .then(withPermit(work, released));
+        });
+    }
+
+    private <T> Mono<T> withPermit(Mono<T> work, AtomicBoolean released) {
+        return work.doFinally(signal -> releaseOnce(released));
+    }
+
+    private void releaseOnce(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        Waiter waiter;
+        while ((waiter = waiters.peek()) != null) {
+            if (!waiter.isWaiting()) {
+                waiters.remove(waiter);
+                continue;
+            }
+            if (!tryAcquire()) {
+                return;
+            }
+            waiter = waiters.poll();
+            if (waiter == null || !waiter.grant()) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("PAYMENTS_OVERLOADED",
+            "Too many payments in progress, please retry later", retryAfterSeconds);
+    }
+
+    private final class Waiter {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private final Sinks.Empty<Void> sink = Sinks.empty();
+        private final long enqueuedAt = System.nanoTime();
+        private volatile Disposable timeout;
+
+        private Waiter() {
+            // The timer may fire before the field is assigned; a late assignment is then harmless
+            this.timeout = Mono.delay(maxWait).subscribe(tick -> {
+                if (abandon()) {
+                    rejectedWaitTimeout.increment();
+                    sink.tryEmitError(overloaded());
+                }
+            });
+        }
+
+        Mono<Void> admission() {
+            return sink.asMono();
+        }
+
+        boolean isWaiting() {
+            return state.get() == WAITING;
+        }
+
+        boolean isGranted() {
+            return state.get() == GRANTED;
+        }
+
+        boolean grant() {
+            if (!state.compareAndSet(WAITING, GRANTED)) {
+                return false;
+            }
+            queueDepth.decrementAndGet();
+            cancelTimeout();
+            waitTimer.record(Duration.ofNanos(System.nanoTime() - enqueuedAt));
+            sink.tryEmitEmpty();
+            return true;
+        }
+
+        boolean abandon() {
+            if (!state.compareAndSet(WAITING, ABANDONED)) {
+                return false;
+            }
+            queueDepth.decrementAndGet();
+            cancelTimeout();
+            return true;
+        }
+
+        private void cancelTimeout() {
+            Disposable pending = timeout;
+            if (pending != null) {
+                pending.dispose();
+            }
+        }
+    }
+}
@@ -1,29 +1,46 @@
 package com.microservices.paymentservice.service;
 
+import com.microservices.common.dto.OrderDTO;
 import com.microservices.common.dto.PaymentDTO;
 import com.microservices.common.dto.StatusUpdateDTO;
 import com.microservices.common.enums.OrderStatus;
 import com.microservices.common.enums.PaymentStatus;
+import com.microservices.common.event.PaymentBatchProcessedEvent;
 import com.microservices.common.event.PaymentProcessedEvent;
+import com.microservices.common.event.PaymentStatusUpdatedEvent;
 import com.microservices.common.exception.BusinessException;
 import com.microservices.common.exception.ResourceNotFoundException;
+import com.microservices.common.jpa.JpaCursorStreamer;
+import com.microservices.paymentservice.cache.OrderSnapshotStore;
+import com.microservices.paymentservice.cache.OrderSnapshotStore.OrderSnapshot;
 import com.microservices.paymentservice.messaging.PaymentEventPublisher;
 import com.microservices.paymentservice.model.Payment;
+import com.microservices.paymentservice.processor.PaymentSettlementEngine;
+import com.microservices.paymentservice.repository.PaymentBatchRepository;
 import com.microservices.paymentservice.repository.PaymentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -32,84 +49,85 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final OrderServiceClient orderServiceClient;
-    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
     private final PaymentEventPublisher paymentEventPublisher;
+    private final JpaCursorStreamer cursorStreamer;
+    private final OrderSnapshotStore orderSnapshotStore;
+    private final PaymentSettlementEngine settlementEngine;
+    private final PaymentAdmissionLimiter admissionLimiter;
+    private final PaymentBatchRepository paymentBatchRepository;
 
-    public Mono<PaymentDTO> processPayment(PaymentDTO paymentDTO, String token) {
+    @Value("${payment.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    // Chunks processed at once; each holds a connection only while inserting or recording statuses
+    @Value("${payment.batch.concurrency:2}")
+    private int batchConcurrency;
+
+    @Value("${payment.batch.settlement-concurrency:64}")
+    private int batchSettlementConcurrency;
+
+    /**
+     * Validates, records and settles one payment, then marks the order PAID. {@code onSettlementStarted} runs
+     * just before the processor is asked to charge; any failure after it may follow a real charge.
+     */
+    public Mono<PaymentDTO> processPayment(PaymentDTO paymentDTO, String token, Runnable onSettlementStarted) {
         log.info("Processing payment for orderId: {}", paymentDTO.getOrderId());
-        
-        return orderServiceClient.getOrder(paymentDTO.getOrderId(), token)
+
+        return findOrder(paymentDTO.getOrderId(), token)
             .flatMap(order -> {
-                if (paymentDTO.getAmount().compareTo(order.getAmount()) != 0) {
-                    return Mono.error(new BusinessException("PAYMENT_AMOUNT_MISMATCH", 
+                if (paymentDTO.getAmount().compareTo(order.amount()) != 0) {
+                    return Mono.error(new BusinessException("PAYMENT_AMOUNT_MISMATCH",
                         "Payment amount does not match order amount"));
                 }
-                
+
                 Payment payment = new Payment(
                     paymentDTO.getOrderId(),
                     paymentDTO.getAmount(),
                     paymentDTO.getPaymentMethod(),
                     PaymentStatus.PENDING
                 );
-                
-                TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
-                txTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
-                return Mono.fromCallable(() -> txTemplate.execute(status -> 
-                    paymentRepository.save(payment)))
+                // The PENDING row is durable before the processor is asked to settle
+                return Mono.fromCallable(() -> paymentRepository.save(payment))
                     .subscribeOn(Schedulers.boundedElastic());
             })
-            .flatMap(savedPayment -> {
-                return Mono.delay(java.time.Duration.ofMillis(100))
-                    .then(Mono.fromCallable(() -> {
-                        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
-                        txTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
-                        return txTemplate.execute(status -> {
-                            savedPayment.setStatus(PaymentStatus.COMPLETED);
-                            return paymentRepository.save(savedPayment);
+            .doOnNext(pendingPayment -> onSettlementStarted.run())
+            .flatMap(pendingPayment -> settlementEngine.settle(pendingPayment)
+                .flatMap(result -> {
+                    if (result.isUnknown()) {
+                        // The charge may have gone through, so neither the payment nor the order is failed
+                        log.warn("Leaving paymentId: {} PENDING for reconciliation: {}",
+                            pendingPayment.getId(), result.reason());
+                        return Mono.just(pendingPayment);
+                    }
+                    return recordStatus(pendingPayment, result.status())
+                        .flatMap(settledPayment -> {
+                            publishPaymentProcessed(settledPayment);
+                            if (!result.isCompleted()) {
+                                return Mono.error(new BusinessException("PAYMENT_SETTLEMENT_FAILED",
+                                    "Payment could not be settled: " + result.reason()));
+                            }
+                            return Mono.just(settledPayment);
                         });
-                    }))
-                    .subscribeOn(Schedulers.boundedElastic());
-            })
-            .flatMap(completedPayment -> {
-                // Publish payment processed event
-                PaymentProcessedEvent event = PaymentProcessedEvent.create(
-                    completedPayment.getId(),
-                    completedPayment.getOrderId(),
-                    completedPayment.getAmount(),
-                    completedPayment.getStatus()
-                );
-                paymentEventPublisher.publishPaymentProcessed(event);
-                
+                }))
+            .flatMap(settledPayment -> {
+                if (settledPayment.getStatus() != PaymentStatus.COMPLETED) {
+                    return Mono.just(settledPayment);
+                }
                 StatusUpdateDTO statusUpdate = new StatusUpdateDTO(OrderStatus.PAID);
-                
+
                 return orderServiceClient.updateOrderStatus(
-                    paymentDTO.getOrderId(), 
+                    paymentDTO.getOrderId(),
                     statusUpdate,
                     token
                 )
-                .thenReturn(completedPayment)
+                .thenReturn(settledPayment)
                 .onErrorResume(throwable -> {
                     log.error("Failed to update order status", throwable);
-                    return Mono.fromCallable(() -> {
-                        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
-                        txTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
-                        return txTemplate.execute(status -> {
-                            completedPayment.setStatus(PaymentStatus.FAILED);
-                            Payment failedPayment = paymentRepository.save(completedPayment);
-                            // Publish failed payment event
-                            PaymentProcessedEvent failedEvent = PaymentProcessedEvent.create(
-                                failedPayment.getId(),
-                                failedPayment.getOrderId(),
-                                failedPayment.getAmount(),
-                                PaymentStatus.FAILED
-                            );
-                            paymentEventPublisher.publishPaymentProcessed(failedEvent);
-                            return failedPayment;
-                        });
-                    })
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .then(Mono.error(new BusinessException("ORDER_STATUS_UPDATE_FAILED", 
-                        "Failed to update order status", throwable)));
+                    return recordStatus(settledPayment, PaymentStatus.FAILED)
+                        .doOnNext(this::publishPaymentProcessed)
+                        .then(Mono.error(new BusinessException("ORDER_STATUS_UPDATE_FAILED",
+                            "Failed to update order status", throwable)));
                 });
             })
             .map(this::convertToDTO)
@@ -131,126 +149,237 @@ public class PaymentService {
     }
 
     public Flux<PaymentDTO> getAllPaymentsStreaming() {
-        return Flux.fromIterable(paymentRepository.findAll())
+        return cursorStreamer.stream("SELECT p FROM Payment p", Payment.class)
             .map(this::convertToDTO)
-            .subscribeOn(Schedulers.boundedElastic())
             .doOnNext(payment -> log.debug("Streaming payment: {}", payment.getId()));
     }
 
     public Mono<PaymentDTO> updatePaymentStatus(@NonNull Long id, PaymentStatus status) {
         Long paymentId = Objects.requireNonNull(id, "Payment ID cannot be null");
-        return Mono.fromCallable(() -> {
-            TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
-            txTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
-            return txTemplate.execute(transactionStatus -> {
-                Payment payment = paymentRepository.findById(paymentId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Payment", paymentId));
-                payment.setStatus(status);
-                return paymentRepository.save(payment);
-            });
-        })
+        return Mono.fromCallable(() -> transactionTemplate.execute(transactionStatus -> {
+            Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment", paymentId));
+            PaymentStatus oldStatus = payment.getStatus();
+            payment.setStatus(status);
+            return new StatusChange(paymentRepository.save(payment), oldStatus);
+        }))
         .subscribeOn(Schedulers.boundedElastic())
-        .map(this::convertToDTO);
+        // Published after commit, so every gateway instance drops its cached copy of the payment
+        .doOnNext(change -> paymentEventPublisher.publishPaymentStatusUpdated(PaymentStatusUpdatedEvent.create(
+            change.payment().getId(), change.payment().getOrderId(), change.oldStatus(), status)))
+        .map(change -> convertToDTO(change.payment()));
     }
 
+    /**
+     * Processes payments in chunks: one order lookup, one multi-row insert, one bulk order update
+     * and one status write per chunk, with settlement calls running concurrently in between.
+     * Results keep the request order; payments that cannot be processed come back as FAILED, and
+     * payments whose settlement or status write did not complete come back PENDING.
+     */
     public Flux<PaymentDTO> processPaymentsBatch(List<PaymentDTO> paymentDTOs, String token) {
-        log.info("Processing {} payments in parallel", paymentDTOs.size());
-        
+        log.info("Processing {} payments in chunks of {}", paymentDTOs.size(), batchChunkSize);
+
         return Flux.fromIterable(paymentDTOs)
-            .flatMap(paymentDTO -> 
-                processPayment(paymentDTO, token)
+            .buffer(batchChunkSize)
+            .flatMapSequential(chunk -> processPaymentChunk(chunk, token), batchConcurrency)
+            .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Runs the payment pipeline behind the admission limiter; when it is saturated the call fails
+     * fast with 429 instead of queueing work on boundedElastic and the connection pool.
+     */
+    public Mono<PaymentDTO> processPaymentWithBackpressure(PaymentDTO paymentDTO, String token,
+                                                           Runnable onSettlementStarted) {
+        return admissionLimiter.admit(processPayment(paymentDTO, token, onSettlementStarted));
+    }
+
+    private Mono<Payment> recordStatus(Payment payment, PaymentStatus status) {
+        return Mono.fromCallable(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            paymentRepository.updateStatus(payment.getId(), status, now);
+            payment.setStatus(status);
+            payment.setUpdatedAt(now);
+            return payment;
+        })
+        .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void publishPaymentProcessed(Payment payment) {
+        PaymentProcessedEvent event = PaymentProcessedEvent.create(
+            payment.getId(),
+            payment.getOrderId(),
+            payment.getAmount(),
+            payment.getStatus()
+        );
+        paymentEventPublisher.publishPaymentProcessed(event);
+    }
+
+    // Validates against the event-fed snapshot first; only a miss costs a call to order-service
+    private Mono<OrderSnapshot> findOrder(Long orderId, String token) {
+        return Mono.defer(() -> orderSnapshotStore.find(orderId)
+            .map(Mono::just)
+            .orElseGet(() -> orderServiceClient.getOrder(orderId, token)
+                .map(OrderSnapshot::from)
+                .doOnNext(orderSnapshotStore::put)));
+    }
+
+    private Mono<List<PaymentDTO>> processPaymentChunk(List<PaymentDTO> chunk, String token) {
+        return findOrders(chunk, token)
+            .flatMap(orders -> {
+                PaymentDTO[] results = new PaymentDTO[chunk.size()];
+                List<BatchEntry> entries = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    PaymentDTO paymentDTO = chunk.get(i);
+                    OrderSnapshot order = orders.get(paymentDTO.getOrderId());
+                    if (order == null || paymentDTO.getAmount().compareTo(order.amount()) != 0) {
+                        log.warn("Rejecting batch payment for orderId: {}, {}", paymentDTO.getOrderId(),
+                            order == null ? "order not found" : "amount mismatch");
+                        results[i] = toFailedPayment(paymentDTO);
+                        continue;
+                    }
+                    entries.add(new BatchEntry(i, new Payment(
+                        paymentDTO.getOrderId(),
+                        paymentDTO.getAmount(),
+                        paymentDTO.getPaymentMethod(),
+                        PaymentStatus.PENDING
+                    )));
+                }
+                if (entries.isEmpty()) {
+                    return Mono.just(Arrays.asList(results));
+                }
+
+                List<Payment> payments = entries.stream().map(BatchEntry::payment).toList();
+                // The PENDING rows are durable before any processor is asked to settle, so a failed
+                // insert has charged nothing and is the only failure that fails the whole chunk
+                return Mono.fromCallable(() -> paymentBatchRepository.insertAll(payments))
+                    .subscribeOn(Schedulers.boundedElastic())
                     .onErrorResume(error -> {
-                        log.error("Failed to process payment for orderId: {}", paymentDTO.getOrderId(), error);
-                        PaymentDTO failedPayment = new PaymentDTO();
-                        failedPayment.setOrderId(paymentDTO.getOrderId());
-                        failedPayment.setAmount(paymentDTO.getAmount());
-                        failedPayment.setPaymentMethod(paymentDTO.getPaymentMethod());
-                        failedPayment.setStatus(PaymentStatus.FAILED);
-                        return Mono.just(failedPayment);
+                        log.error("Failed to insert payment chunk of {} payments", payments.size(), error);
+                        entries.forEach(entry -> results[entry.index()] = toFailedPayment(chunk.get(entry.index())));
+                        return Mono.empty();
                     })
-            )
-            .parallel()
-            .runOn(Schedulers.parallel())
-            .sequential();
+                    .flatMap(inserted -> settleChunk(inserted, token)
+                        .doOnSuccess(ignored -> entries.forEach(
+                            entry -> results[entry.index()] = convertToDTO(entry.payment()))))
+                    .then(Mono.fromCallable(() -> Arrays.asList(results)));
+            });
     }
 
-    public Mono<PaymentDTO> processPaymentWithBackpressure(PaymentDTO paymentDTO, String token) {
-        return orderServiceClient.getOrder(paymentDTO.getOrderId(), token)
-            .flatMap(order -> {
-                if (paymentDTO.getAmount().compareTo(order.getAmount()) != 0) {
-                    return Mono.error(new BusinessException("PAYMENT_AMOUNT_MISMATCH", 
-                        "Payment amount does not match order amount"));
-                }
-                
-                Payment payment = new Payment(
-                    paymentDTO.getOrderId(),
-                    paymentDTO.getAmount(),
-                    paymentDTO.getPaymentMethod(),
-                    PaymentStatus.PENDING
-                );
-                
-                TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
-                txTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
-                return Mono.fromCallable(() -> txTemplate.execute(status -> 
-                    paymentRepository.save(payment)))
-                    .subscribeOn(Schedulers.boundedElastic());
-            })
-            .flatMap(savedPayment -> {
-                return Mono.delay(java.time.Duration.ofMillis(100))
-                    .then(Mono.fromCallable(() -> {
-                        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
-                        txTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
-                        return txTemplate.execute(status -> {
-                            savedPayment.setStatus(PaymentStatus.COMPLETED);
-                            return paymentRepository.save(savedPayment);
-                        });
-                    }))
-                    .subscribeOn(Schedulers.boundedElastic());
-            })
-            .flatMap(completedPayment -> {
-                // Publish payment processed event
-                PaymentProcessedEvent event = PaymentProcessedEvent.create(
-                    completedPayment.getId(),
-                    completedPayment.getOrderId(),
-                    completedPayment.getAmount(),
-                    completedPayment.getStatus()
-                );
-                paymentEventPublisher.publishPaymentProcessed(event);
-                
-                StatusUpdateDTO statusUpdate = new StatusUpdateDTO(OrderStatus.PAID);
-                
-                return orderServiceClient.updateOrderStatus(
-                    paymentDTO.getOrderId(), 
-                    statusUpdate,
-                    token
-                )
-                .thenReturn(completedPayment)
-                .onErrorResume(throwable -> {
-                    log.error("Failed to update order status", throwable);
-                    return Mono.fromCallable(() -> {
-                        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
-                        txTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
-                        return txTemplate.execute(status -> {
-                            completedPayment.setStatus(PaymentStatus.FAILED);
-                            Payment failedPayment = paymentRepository.save(completedPayment);
-                            // Publish failed payment event
-                            PaymentProcessedEvent failedEvent = PaymentProcessedEvent.create(
-                                failedPayment.getId(),
-                                failedPayment.getOrderId(),
-                                failedPayment.getAmount(),
-                                PaymentStatus.FAILED
-                            );
-                            paymentEventPublisher.publishPaymentProcessed(failedEvent);
-                            return failedPayment;
+    /**
+     * Settles the inserted payments, moves the orders of completed ones to PAID and then writes
+     * the final statuses and publishes one batch event. Each step after the insert handles its
+     * own failures, so every payment keeps an id and a status matching its row.
+     */
+    private Mono<Void> settleChunk(List<Payment> payments, String token) {
+        return Flux.fromIterable(payments)
+            .flatMap(payment -> settlementEngine.settle(payment)
+                .doOnNext(result -> payment.setStatus(result.status())), batchSettlementConcurrency)
+            .then(Mono.defer(() -> markOrdersPaid(payments, token)))
+            .then(Mono.defer(() -> recordStatuses(payments.stream()
+                .filter(payment -> payment.getStatus() != PaymentStatus.PENDING)
+                .toList())));
+    }
+
+    // Snapshot hits cost nothing; the misses of a whole chunk go to order-service in one call
+    private Mono<Map<Long, OrderSnapshot>> findOrders(List<PaymentDTO> chunk, String token) {
+        return Mono.defer(() -> {
+            Map<Long, OrderSnapshot> orders = new HashMap<>();
+            Set<Long> missing = new LinkedHashSet<>();
+            for (PaymentDTO paymentDTO : chunk) {
+                orderSnapshotStore.find(paymentDTO.getOrderId())
+                    .ifPresentOrElse(order -> orders.put(order.id(), order), () -> missing.add(paymentDTO.getOrderId()));
+            }
+            if (missing.isEmpty()) {
+                return Mono.just(orders);
+            }
+            return orderServiceClient.getOrders(missing, token)
+                .map(found -> {
+                    found.stream()
+                        .map(OrderSnapshot::from)
+                        .forEach(order -> {
+                            orderSnapshotStore.put(order);
+                            orders.put(order.id(), order);
                         });
-                    })
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .then(Mono.error(new BusinessException("ORDER_STATUS_UPDATE_FAILED", 
-                        "Failed to update order status", throwable)));
+                    return orders;
+                })
+                .onErrorResume(error -> {
+                    log.error("Failed to look up {} orders for batch payments", missing.size(), error);
+                    return Mono.just(orders);
                 });
+        });
+    }
+
+    // Payments whose outcome is still unknown stay PENDING and are neither written nor announced
+    private Mono<Void> recordStatuses(List<Payment> settled) {
+        if (settled.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            settled.forEach(payment -> payment.setUpdatedAt(now));
+            paymentBatchRepository.updateStatuses(settled);
+        })
+        .subscribeOn(Schedulers.boundedElastic())
+        .doOnSuccess(ignored -> publishBatchSafely(settled))
+        .onErrorResume(error -> {
+            // The write did not commit, so the rows are still PENDING: report them as such for reconciliation
+            log.error("Failed to record status of {} settled payments, leaving them PENDING", settled.size(), error);
+            settled.forEach(payment -> payment.setStatus(PaymentStatus.PENDING));
+            return Mono.empty();
+        });
+    }
+
+    // The statuses are already committed, so a failed announcement must not change what is reported
+    private void publishBatchSafely(List<Payment> settled) {
+        try {
+            publishPaymentBatchProcessed(settled);
+        } catch (RuntimeException e) {
+            log.error("Failed to publish batch event for {} settled payments", settled.size(), e);
+        }
+    }
+
+    // Settled payments whose order could not be moved to PAID are failed, as in processPayment
+    private Mono<Void> markOrdersPaid(List<Payment> payments, String token) {
+        List<Payment> completed = payments.stream()
+            .filter(payment -> payment.getStatus() == PaymentStatus.COMPLETED)
+            .toList();
+        if (completed.isEmpty()) {
+            return Mono.empty();
+        }
+        Set<Long> orderIds = completed.stream().map(Payment::getOrderId).collect(Collectors.toCollection(LinkedHashSet::new));
+
+        return orderServiceClient.updateOrderStatuses(orderIds, OrderStatus.PAID, token)
+            .map(updated -> updated.stream().map(OrderDTO::getId).collect(Collectors.toSet()))
+            .onErrorResume(error -> {
+                log.error("Failed to update status of {} orders", orderIds.size(), error);
+                return Mono.just(Set.of());
             })
-            .map(this::convertToDTO)
-            .doOnError(error -> log.error("Payment processing failed", error));
+            .doOnNext(paidOrderIds -> completed.stream()
+                .filter(payment -> !paidOrderIds.contains(payment.getOrderId()))
+                .forEach(payment -> payment.setStatus(PaymentStatus.FAILED)))
+            .then();
+    }
+
+    private void publishPaymentBatchProcessed(List<Payment> payments) {
+        List<PaymentProcessedEvent> events = payments.stream()
+            .map(payment -> PaymentProcessedEvent.create(
+                payment.getId(),
+                payment.getOrderId(),
+                payment.getAmount(),
+                payment.getStatus()
+            ))
+            .toList();
+        paymentEventPublisher.publishPaymentBatchProcessed(PaymentBatchProcessedEvent.of(events));
+    }
+
+    private PaymentDTO toFailedPayment(PaymentDTO paymentDTO) {
+        PaymentDTO failedPayment = new PaymentDTO();
+        failedPayment.setOrderId(paymentDTO.getOrderId());
+        failedPayment.setAmount(paymentDTO.getAmount());
+        failedPayment.setPaymentMethod(paymentDTO.getPaymentMethod());
+        failedPayment.setStatus(PaymentStatus.FAILED);
+        return failedPayment;
     }
 
     private PaymentDTO convertToDTO(Payment payment) {
@@ -265,4 +394,10 @@ public class PaymentService {
         dto.setUpdatedAt(payment.getUpdatedAt());
         return dto;
     }
+
+    private record StatusChange(Payment payment, PaymentStatus oldStatus) {
+    }
+
+    private record BatchEntry(int index, Payment payment) {
+    }
 }
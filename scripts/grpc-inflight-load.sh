@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Measures how many GetOrder RPCs one order-service instance keeps in flight under load.
+#
+# Run it once against a build whose GetOrder handler still calls block() on the gRPC thread and once
+# against the current build, with the same database, order id and concurrency levels.
+#
+#   scripts/grpc-inflight-load.sh [host:grpc-port] [actuator-url] [order-id]
+#
+# Needs ghz (https://ghz.sh), curl and jq. When order-service validates SSO, set IDENTITY to a signed
+# x-user-identity value (builds that check the request token instead take TOKEN), or start it with
+# --sso.validate.enabled=false. Set CONCURRENCY / DURATION to change the load steps.
+set -euo pipefail
+
+TARGET="${1:-localhost:9090}"
+ACTUATOR="${2:-http://localhost:8081/actuator}"
+ORDER_ID="${3:-1}"
+CONCURRENCY="${CONCURRENCY:-50 200 1000 2000}"
+DURATION="${DURATION:-30s}"
+PROTO="$(dirname "$0")/../order-service/src/main/proto/order_service.proto"
+
+metric() {
+  # Prints the metric value, or "-" when the build does not have it
+  curl -fs "$ACTUATOR/metrics/$1" | jq -r '.measurements[0].value' 2>/dev/null || echo "-"
+}
+
+printf "%-12s %-10s %-12s %-12s %-14s %-14s %-12s\n" \
+  "concurrency" "rps" "avg_ms" "p99_ms" "in_flight" "gauge_peak" "live_threads"
+
+for c in $CONCURRENCY; do
+  report="$(mktemp)"
+  peak_file="$(mktemp)"
+  echo "-" > "$peak_file"
+  # Sample the server-side gauge (new build only) and thread count while the load runs
+  (
+    peak=-1
+    while true; do
+      value="$(metric grpc.server.calls.in-flight)"
+      if [[ "$value" != "-" ]] && (( ${value%.*} > peak )); then
+        peak=${value%.*}
+        echo "$peak" > "$peak_file"
+      fi
+      sleep 0.5
+    done
+  ) &
+  sampler=$!
+
+  ghz --insecure --proto "$PROTO" \
+    --call com.microservices.orderservice.OrderService/GetOrder \
+    -d "{\"order_id\": $ORDER_ID, \"token\": \"${TOKEN:-}\"}" \
+    -m "{\"x-user-identity\": \"${IDENTITY:-}\"}" \
+    -c "$c" -z "$DURATION" --connections "$(( c < 50 ? c : 50 ))" \
+    -O json "$TARGET" > "$report"
+
+  threads="$(metric jvm.threads.live)"
+  kill "$sampler" 2>/dev/null || true
+
+  rps="$(jq -r '.rps' "$report")"
+  avg_ms="$(jq -r '.average / 1e6' "$report")"
+  p99_ms="$(jq -r '[.latencyDistribution[] | select(.percentage == 99)][0].latency / 1e6' "$report")"
+  # Little's law: requests in flight = throughput x latency, comparable across both builds
+  in_flight="$(jq -r '(.rps * .average / 1e9) | floor' "$report")"
+
+  printf "%-12s %-10.0f %-12.1f %-12.1f %-14s %-14s %-12s\n" \
+    "$c" "$rps" "$avg_ms" "$p99_ms" "$in_flight" "$(cat "$peak_file")" "$threads"
+  rm -f "$report" "$peak_file"
+done